@@ -28,6 +28,8 @@ public class QMember extends EntityPathBase<Member> {
 
     public final StringPath name = createString("name");
 
+    public final NumberPath<Long> rowVersion = createNumber("rowVersion", Long.class);
+
     public final QTeam team;
 
     public QMember(String variable) {
@@ -1,20 +1,49 @@
 package study.querydsl;
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
 import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import study.querydsl.outbox.ChangeTrackingQueryFactory;
+import study.querydsl.repository.support.DataVersion;
+import study.querydsl.repository.support.DataVersionStatementInspector;
+
+import javax.sql.DataSource;
 
 @SpringBootApplication
 public class QuerydslApplication {
 
+	private static final int STARTUP_STEP_CAPACITY = 10_000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(QuerydslApplication.class, args);
+		SpringApplication application = new SpringApplication(QuerydslApplication.class);
+		// 기동 단계별 시간 기록 (StartupReporter 가 요약)
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
 	@Bean
 	JPAQueryFactory jpaQueryFactory(EntityManager em) {
-		return new JPAQueryFactory(em);
+		// update / delete execute() 도 change_outbox 에 남긴다
+		return new ChangeTrackingQueryFactory(em);
+	}
+
+	@Bean
+	SQLQueryFactory sqlQueryFactory(DataSource dataSource) {
+		Configuration configuration = new Configuration(H2Templates.builder().build());
+		return new SQLQueryFactory(configuration, new TransactionAwareDataSourceProxy(dataSource));
+	}
+
+	@Bean
+	HibernatePropertiesCustomizer dataVersionCustomizer(DataVersion dataVersion) {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new DataVersionStatementInspector(dataVersion));
 	}
 }
@@ -9,6 +9,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.outbox.ChangeOutbox;
+import study.querydsl.outbox.MemberVersionStamper;
+import study.querydsl.startup.DatabaseSnapshot;
 
 @Profile("local")
 @Component
@@ -16,10 +19,21 @@ import study.querydsl.entity.Team;
 public class InitMember {
 
     private final InitMemberService initMemberService;
+    private final DatabaseSnapshot databaseSnapshot;
+    private final ChangeOutbox changeOutbox;
+    private final MemberVersionStamper memberVersionStamper;
 
     @PostConstruct
     public void init() {
+        // 스냅샷이 있으면 다시 넣지 않고 복원
+        if (databaseSnapshot.restoreIfPresent()) {
+            // 복원이 DROP ALL OBJECTS 로 시작하므로 스냅샷에 없던 outbox 테이블을 다시 만든다
+            changeOutbox.createSchema();
+            memberVersionStamper.createSchema();
+            return;
+        }
         initMemberService.init();
+        databaseSnapshot.exportIfEnabled();
     }
 
     @Component
@@ -3,29 +3,193 @@ package study.querydsl.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.dto.AgeBucketDto;
+import study.querydsl.dto.MemberBatchRequest;
+import study.querydsl.dto.MemberBatchResponse;
+import study.querydsl.dto.MemberChangesDto;
+import study.querydsl.dto.MemberField;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.NormalizedMembersDto;
+import study.querydsl.repository.MemberChangeRepository;
 import study.querydsl.repository.MemberJpaRepository;
-import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberReadRepository;
+import study.querydsl.repository.support.DataVersion;
+import study.querydsl.service.MemberBatchLookupService;
+import study.querydsl.service.MemberPagePrefetcher;
+import study.querydsl.service.MemberSearchService;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_CHANGES = 1000;
+
+    private final MemberSearchService memberSearchService;
+    private final MemberPagePrefetcher memberPagePrefetcher;
     private final MemberJpaRepository memberJpaRepository;
-    private final MemberRepository memberRepository;
+    private final MemberReadRepository memberReadRepository;
+    private final DataVersion dataVersion;
+    private final MemberBatchLookupService memberBatchLookupService;
+    private final MemberChangeRepository memberChangeRepository;
 
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.search(condition);
+    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition, WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberSearchService.search(condition);
     }
 
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPage(condition, pageable);
+    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable,
+                                              @RequestParam(defaultValue = "false") boolean estimateCount,
+                                              @RequestParam(defaultValue = "false") boolean deferredJoin,
+                                              @RequestHeader(name = "X-Client-Id", required = false) String clientId,
+                                              WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        if (deferredJoin) {
+            return memberPagePrefetcher.fetch(clientId, "deferred", condition, pageable,
+                    memberSearchService::searchPageDeferred);
+        }
+        if (estimateCount) {
+            return memberPagePrefetcher.fetch(clientId, "estimated", condition, pageable,
+                    memberSearchService::searchPageEstimated);
+        }
+        return memberPagePrefetcher.fetch(clientId, "page", condition, pageable, memberSearchService::searchPage);
+    }
+
+    /**
+     * fields=memberId,userName 처럼 요청한 컬럼만 조회
+     */
+    @GetMapping(value = "/v1/members", params = "fields")
+    public List<Map<String, Object>> searchMemberFieldsV1(MemberSearchCondition condition,
+                                                          @RequestParam List<String> fields,
+                                                          WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberReadRepository.searchFields(condition, MemberField.parse(fields));
+    }
+
+    @GetMapping(value = "/v2/members", params = "fields")
+    public Page<Map<String, Object>> searchMemberFieldsV2(MemberSearchCondition condition, Pageable pageable,
+                                                          @RequestParam List<String> fields,
+                                                          WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberReadRepository.searchPageFields(condition, MemberField.parse(fields), pageable);
+    }
+
+    /**
+     * normalized=true 면 팀 이름을 teams 에 한 번만 담고 회원 row 는 teamId 로 참조
+     */
+    @GetMapping(value = "/v1/members", params = {"normalized=true", "!fields"})
+    public NormalizedMembersDto searchMemberNormalizedV1(MemberSearchCondition condition, WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberReadRepository.searchNormalized(condition);
+    }
+
+    @GetMapping(value = "/v2/members", params = {"normalized=true", "!fields"})
+    public NormalizedMembersDto searchMemberNormalizedV2(MemberSearchCondition condition, Pageable pageable,
+                                                        WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberReadRepository.searchPageNormalized(condition, pageable);
+    }
+
+    @GetMapping("/v2/members/slice")
+    public Slice<MemberTeamDto> searchMemberSlice(MemberSearchCondition condition, Pageable pageable, WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberSearchService.searchSlice(condition, pageable);
+    }
+
+    @GetMapping(value = "/v2/members/slice", params = "fields")
+    public Slice<Map<String, Object>> searchMemberFieldsSlice(MemberSearchCondition condition, Pageable pageable,
+                                                              @RequestParam List<String> fields,
+                                                              WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberReadRepository.searchSliceFields(condition, MemberField.parse(fields), pageable);
+    }
+
+    /**
+     * 팀별 나이가 많은(youngest=true 면 적은) 순 상위 size 명
+     */
+    @GetMapping("/v1/members/top-per-team")
+    public List<MemberTeamDto> topMembersPerTeam(@RequestParam(defaultValue = "3") int size,
+                                                 @RequestParam(defaultValue = "false") boolean youngest,
+                                                 WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberJpaRepository.findTopByAgePerTeam(size, youngest);
+    }
+
+    /**
+     * 나이 구간별 회원 수. bounds=20,30 이면 20 미만 / 20~29 / 30 이상
+     */
+    @GetMapping("/v1/members/age-histogram")
+    public List<AgeBucketDto> ageHistogram(MemberSearchCondition condition,
+                                           @RequestParam(defaultValue = "10,20,30,40,50,60") int[] bounds,
+                                           @RequestParam(defaultValue = "false") boolean byTeam,
+                                           WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        if (bounds.length == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "구간 경계가 하나 이상 필요합니다.");
+        }
+        return memberReadRepository.ageHistogram(condition, bounds, byTeam);
+    }
+
+    /**
+     * since 이후 추가 / 변경 / 삭제된 회원. 처음에는 since=0 으로 전체를 받고, 응답의 version 으로 이어서 받는다.
+     */
+    @GetMapping("/members/changes")
+    public MemberChangesDto memberChanges(@RequestParam(defaultValue = "0") long since,
+                                          @RequestParam(defaultValue = "500") int limit,
+                                          WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        return memberChangeRepository.findChangesSince(since, Math.max(1, Math.min(limit, MAX_CHANGES)));
+    }
+
+    @PostMapping("/v1/members/batch")
+    public MemberBatchResponse findMembers(@RequestBody MemberBatchRequest request) {
+        return new MemberBatchResponse(
+                memberBatchLookupService.findByIds(request.getIds()),
+                memberBatchLookupService.findByNames(request.getNames()));
+    }
+
+    @ExceptionHandler(MemberField.UnknownFieldException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String unknownField(MemberField.UnknownFieldException e) {
+        return e.getMessage();
     }
 }
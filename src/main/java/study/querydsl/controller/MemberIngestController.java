@@ -0,0 +1,69 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.MemberIngestRequest;
+import study.querydsl.dto.MemberIngestResult;
+import study.querydsl.service.MemberIngestService;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberIngestController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String COMMITTED_ROWS = "X-Committed-Rows";
+
+    private final MemberIngestService memberIngestService;
+
+    /**
+     * 본문 전체를 List 로 읽은 뒤 저장한다. 큰 입력은 NDJSON 으로
+     */
+    @PostMapping(value = "/v1/members/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public MemberIngestResult ingest(@RequestBody List<MemberIngestRequest> members) {
+        return memberIngestService.ingest(members);
+    }
+
+    @PostMapping(value = "/v1/members/bulk", consumes = APPLICATION_NDJSON)
+    public MemberIngestResult ingestNdjson(HttpServletRequest request) throws IOException {
+        return memberIngestService.ingestNdjson(request.getInputStream());
+    }
+
+    @ExceptionHandler(MemberIngestService.IngestBusyException.class)
+    public ResponseEntity<String> busy(MemberIngestService.IngestBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    /**
+     * 커밋된 건수를 X-Committed-Rows 로 알려 준다. 본문이 잘못됐으면 400
+     */
+    @ExceptionHandler(MemberIngestService.IngestFailedException.class)
+    public ResponseEntity<String> failed(MemberIngestService.IngestFailedException e) {
+        HttpStatus status = isMalformedInput(e) ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status)
+                .header(COMMITTED_ROWS, String.valueOf(e.getCommittedRows()))
+                .body(e.getMessage());
+    }
+
+    private static boolean isMalformedInput(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.service.MemberPagePrefetcher;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberPrefetchController {
+
+    private final MemberPagePrefetcher memberPagePrefetcher;
+
+    @GetMapping("/diagnostics/prefetch")
+    public MemberPagePrefetcher.Metrics prefetch() {
+        return memberPagePrefetcher.metrics();
+    }
+}
@@ -0,0 +1,38 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.repository.TeamQueryRepository;
+import study.querydsl.repository.support.DataVersion;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamQueryRepository teamQueryRepository;
+    private final DataVersion dataVersion;
+
+    @Value("${querydsl.teams.max-members-per-team:100}")
+    private int maxMembersPerTeam;
+
+    /**
+     * 팀 페이지 + 팀마다 최대 memberLimit 명(querydsl.teams.max-members-per-team 이하)의 회원
+     */
+    @GetMapping("/teams")
+    public Page<TeamMembersDto> teams(Pageable pageable,
+                                      @RequestParam(required = false) Integer memberLimit,
+                                      WebRequest request) {
+        if (request.checkNotModified(dataVersion.etag())) {
+            return null;
+        }
+        int limit = memberLimit == null ? maxMembersPerTeam : Math.max(0, Math.min(memberLimit, maxMembersPerTeam));
+        return teamQueryRepository.findTeamsWithMembers(pageable, limit);
+    }
+}
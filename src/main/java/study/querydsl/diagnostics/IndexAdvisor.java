@@ -0,0 +1,121 @@
+package study.querydsl.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * MemberSearchCondition 의 16가지 조건 조합과 실제로 쓰는 정렬 순서별로 EXPLAIN 을 실행해
+ * full scan 여부를 보고하고 복합 인덱스를 제안한다.
+ * <p>
+ * SQL 은 MemberJpaRepository.search 가 생성하는 member left join team 쿼리와 같은 모양이다.
+ * searchPage 는 Pageable 의 sort 를 적용하지 않으므로 정렬 없음(searchPage)과 member_id(searchPageDeferred)를 본다.
+ * MemberRepositorySupport 의 applyPagination / applySlice 는 호출자의 sort 를 그대로 적용하므로
+ * Member 의 정렬 가능한 단일 컬럼(name, age)도 함께 본다. 여러 컬럼을 섞은 정렬은 다루지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndexAdvisor {
+
+    static final List<String> SORT_COLUMNS = List.of("", "m.member_id", "m.name", "m.age");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<ShapeReport> analyze() {
+        List<ShapeReport> reports = new ArrayList<>();
+        for (int shape = 0; shape < 16; shape++) {
+            for (String sortColumn : SORT_COLUMNS) {
+                reports.add(analyze(shape, sortColumn));
+            }
+        }
+        return reports;
+    }
+
+    ShapeReport analyze(int shape, String sortColumn) {
+        boolean userName = (shape & 1) != 0;
+        boolean teamName = (shape & 2) != 0;
+        boolean ageGoe = (shape & 4) != 0;
+        boolean ageLoe = (shape & 8) != 0;
+
+        List<String> predicates = new ArrayList<>();
+        if (userName) {
+            predicates.add("m.name = 'member1'");
+        }
+        if (teamName) {
+            predicates.add("t.name = 'TeamA'");
+        }
+        if (ageGoe) {
+            predicates.add("m.age >= 10");
+        }
+        if (ageLoe) {
+            predicates.add("m.age <= 40");
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "select m.member_id, m.name, m.age, t.team_id, t.name from member m left join team t on t.team_id = m.team_id");
+        if (!predicates.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", predicates));
+        }
+        if (!sortColumn.isEmpty()) {
+            sql.append(" order by ").append(sortColumn);
+        }
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+        String normalized = plan.toLowerCase(Locale.ROOT);
+        boolean memberScan = normalized.contains("member.tablescan");
+        boolean teamScan = normalized.contains("team.tablescan");
+
+        List<String> suggestions = new ArrayList<>();
+        if (memberScan && (userName || teamName || ageGoe || ageLoe)) {
+            // 동등 조건 컬럼 -> 범위 조건 컬럼 순서
+            Set<String> columns = new LinkedHashSet<>();
+            if (userName) {
+                columns.add("name");
+            }
+            if (teamName) {
+                columns.add("team_id");
+            }
+            if (ageGoe || ageLoe) {
+                columns.add("age");
+            }
+            suggestions.add("create index on member (" + String.join(", ", columns) + ")");
+        }
+        if (teamScan && teamName) {
+            suggestions.add("create index on team (name)");
+        }
+
+        return new ShapeReport(describe(userName, teamName, ageGoe, ageLoe), sortColumn, sql.toString(), plan,
+                memberScan, teamScan, suggestions);
+    }
+
+    private String describe(boolean userName, boolean teamName, boolean ageGoe, boolean ageLoe) {
+        List<String> names = new ArrayList<>();
+        if (userName) {
+            names.add("userName");
+        }
+        if (teamName) {
+            names.add("teamName");
+        }
+        if (ageGoe) {
+            names.add("ageGoe");
+        }
+        if (ageLoe) {
+            names.add("ageLoe");
+        }
+        return names.isEmpty() ? "(none)" : String.join("+", names);
+    }
+
+    public record ShapeReport(String condition, String sort, String sql, String plan,
+                              boolean memberFullScan, boolean teamFullScan, List<String> suggestions) {
+
+        public boolean hasFullScan() {
+            return memberFullScan || teamFullScan;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package study.querydsl.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 기동 시 인덱스 진단 결과를 로그로 출력한다.
+ * <p>
+ * {@code --querydsl.index-advisor.enabled=true} 로 실행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "querydsl.index-advisor.enabled", havingValue = "true")
+public class IndexAdvisorRunner implements ApplicationRunner {
+
+    private final IndexAdvisor indexAdvisor;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<IndexAdvisor.ShapeReport> reports = indexAdvisor.analyze();
+        long fullScans = reports.stream().filter(IndexAdvisor.ShapeReport::hasFullScan).count();
+        log.info("index advisor: {} query shapes, {} with full scan", reports.size(), fullScans);
+
+        for (IndexAdvisor.ShapeReport report : reports) {
+            if (!report.hasFullScan()) {
+                continue;
+            }
+            log.info("full scan condition={} sort={} member={} team={} suggestions={}\n{}",
+                    report.condition(), report.sort().isEmpty() ? "(none)" : report.sort(),
+                    report.memberFullScan(), report.teamFullScan(), report.suggestions(), report.plan());
+        }
+        reports.stream()
+                .flatMap(report -> report.suggestions().stream())
+                .distinct()
+                .forEach(suggestion -> log.info("suggested index: {}", suggestion));
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class SlowQueryController {
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    @GetMapping("/diagnostics/slow-queries")
+    public List<SlowQueryRecorder.SlowQuery> slowQueries() {
+        return slowQueryRecorder.recent();
+    }
+
+    @DeleteMapping("/diagnostics/slow-queries")
+    public void clear() {
+        slowQueryRecorder.clear();
+    }
+}
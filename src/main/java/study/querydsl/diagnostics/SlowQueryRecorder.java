@@ -0,0 +1,158 @@
+package study.querydsl.diagnostics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * threshold 이상 걸린 SQL 을 바인딩 파라미터, 실행 시간, 호출한 repository 메서드, EXPLAIN 결과와 함께
+ * 고정 크기 ring buffer 에 보관한다.
+ * <p>
+ * 기록 자체는 호출한 스레드에서 바로 하고, EXPLAIN 만 원본 DataSource 의 별도 커넥션으로 백그라운드에서 실행해
+ * 나중에 plan 을 채운다. 느린 쿼리를 더 느리게 만들지 않도록 EXPLAIN 대기열이 차면 EXPLAIN 만 건너뛰고
+ * (plan 이 null 로 남는다) 기록은 남긴다.
+ */
+@Slf4j
+@Component
+public class SlowQueryRecorder {
+
+    private static final Pattern SELECT_STATEMENT = Pattern.compile(
+            "^(?:\\s*/\\*.*?\\*/)*\\s*(?:select|with)\\b", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final long thresholdNanos;
+    private final SlowQuery[] buffer;
+    private final ThreadPoolExecutor explainExecutor;
+    private long sequence;
+
+    public SlowQueryRecorder(@Value("${querydsl.slow-query.threshold-ms:100}") long thresholdMs,
+                             @Value("${querydsl.slow-query.capacity:100}") int capacity) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.buffer = new SlowQuery[capacity];
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    void record(DataSource targetDataSource, String sql, Map<Integer, Object> parameters, long elapsedNanos) {
+        if (!isSlow(elapsedNanos)) {
+            return;
+        }
+        String origin = findOrigin();
+        List<String> boundParameters = parameters.values().stream()
+                .map(this::describe)
+                .toList();
+        SlowQuery slowQuery = new SlowQuery(LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                origin, sql, boundParameters, null);
+        long slot = add(slowQuery);
+
+        if (SELECT_STATEMENT.matcher(sql).find()) {
+            explainExecutor.execute(() -> updatePlan(slot, slowQuery, explain(targetDataSource, sql, parameters)));
+        }
+    }
+
+    /**
+     * 최근에 기록된 순서대로 반환
+     */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> results = new ArrayList<>();
+        for (int i = 0; i < buffer.length; i++) {
+            SlowQuery slowQuery = buffer[(int) Math.floorMod(sequence - 1 - i, (long) buffer.length)];
+            if (slowQuery == null) {
+                break;
+            }
+            results.add(slowQuery);
+        }
+        return results;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buffer, null);
+        sequence = 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private synchronized long add(SlowQuery slowQuery) {
+        buffer[(int) (sequence % buffer.length)] = slowQuery;
+        return sequence++;
+    }
+
+    /**
+     * EXPLAIN 이 끝나기 전에 ring buffer 에서 밀려났거나 clear() 됐으면 버린다.
+     */
+    private synchronized void updatePlan(long slot, SlowQuery slowQuery, String plan) {
+        int index = (int) (slot % buffer.length);
+        if (buffer[index] == slowQuery) {
+            buffer[index] = slowQuery.withPlan(plan);
+        }
+    }
+
+    private String explain(DataSource dataSource, String sql, Map<Integer, Object> parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                statement.setObject(parameter.getKey(), parameter.getValue());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString().trim();
+        } catch (SQLException e) {
+            log.debug("explain failed: {}", sql, e);
+            return "explain failed: " + e.getMessage();
+        }
+    }
+
+    private String findOrigin() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("study.querydsl.")
+                        && !frame.getClassName().startsWith("study.querydsl.diagnostics."))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse("unknown"));
+    }
+
+    private String describe(Object value) {
+        String text = String.valueOf(value);
+        return text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text;
+    }
+
+    public record SlowQuery(LocalDateTime executedAt, long elapsedMs, String origin, String sql,
+                            List<String> parameters, String plan) {
+
+        SlowQuery withPlan(String plan) {
+            return new SlowQuery(executedAt, elapsedMs, origin, sql, parameters, plan);
+        }
+    }
+}
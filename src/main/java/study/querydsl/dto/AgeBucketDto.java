@@ -0,0 +1,18 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 나이 구간별 회원 수. ageFrom 이상 ageTo 미만이며, 첫 구간의 ageFrom / 마지막 구간의 ageTo 는 null
+ */
+@Data
+@AllArgsConstructor
+public class AgeBucketDto {
+
+    private Long teamId;
+    private String teamName;
+    private Integer ageFrom;
+    private Integer ageTo;
+    private long count;
+}
@@ -0,0 +1,13 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class MemberBatchRequest {
+
+    private List<Long> ids = new ArrayList<>();
+    private List<String> names = new ArrayList<>();
+}
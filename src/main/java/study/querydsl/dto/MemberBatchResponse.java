@@ -0,0 +1,15 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class MemberBatchResponse {
+
+    private Map<Long, MemberTeamDto> byId;
+    private Map<String, List<MemberTeamDto>> byName;
+}
@@ -0,0 +1,24 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * version 에 바뀐 회원. deleted 면 tombstone 이라 memberId / version 만 있다.
+ */
+@Data
+@AllArgsConstructor
+public class MemberChangeDto {
+
+    private Long memberId;
+    private String userName;
+    private Integer age;
+    private Long teamId;
+    private String teamName;
+    private long version;
+    private boolean deleted;
+
+    public static MemberChangeDto tombstone(Long memberId, long version) {
+        return new MemberChangeDto(memberId, null, null, null, null, version, true);
+    }
+}
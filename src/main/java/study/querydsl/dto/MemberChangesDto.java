@@ -0,0 +1,20 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * version 순 변경 목록. 다음 요청은 since=version 으로 보낸다. hasMore 면 바로 이어서 더 받을 것이 있다.
+ * resyncRequired 면 since 이후의 tombstone 이 이미 지워졌으므로 since=0 부터 다시 받아야 한다.
+ */
+@Data
+@AllArgsConstructor
+public class MemberChangesDto {
+
+    private List<MemberChangeDto> changes;
+    private long version;
+    private boolean hasMore;
+    private boolean resyncRequired;
+}
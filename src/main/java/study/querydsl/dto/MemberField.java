@@ -0,0 +1,66 @@
+package study.querydsl.dto;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * fields= 로 고를 수 있는 회원 검색 컬럼. 이름은 {@link MemberTeamDto} 의 프로퍼티 이름과 같다.
+ */
+public enum MemberField {
+
+    MEMBER_ID("memberId", false),
+    USER_NAME("userName", false),
+    AGE("age", false),
+    TEAM_ID("teamId", false),
+    TEAM_NAME("teamName", true);
+
+    private final String fieldName;
+    private final boolean teamJoinRequired;
+
+    MemberField(String fieldName, boolean teamJoinRequired) {
+        this.fieldName = fieldName;
+        this.teamJoinRequired = teamJoinRequired;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * team 테이블을 join 해야 읽을 수 있는 컬럼인지. teamId 는 member.team_id 로 읽는다.
+     */
+    public boolean isTeamJoinRequired() {
+        return teamJoinRequired;
+    }
+
+    /**
+     * 비어 있으면 전체 컬럼. 모르는 이름이 있으면 {@link UnknownFieldException}
+     */
+    public static Set<MemberField> parse(Collection<String> fieldNames) {
+        if (fieldNames == null || fieldNames.isEmpty()) {
+            return EnumSet.allOf(MemberField.class);
+        }
+        Set<MemberField> fields = EnumSet.noneOf(MemberField.class);
+        for (String fieldName : fieldNames) {
+            fields.add(of(fieldName.trim()));
+        }
+        return fields;
+    }
+
+    private static MemberField of(String fieldName) {
+        for (MemberField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        throw new UnknownFieldException(fieldName);
+    }
+
+    public static class UnknownFieldException extends IllegalArgumentException {
+
+        public UnknownFieldException(String fieldName) {
+            super("알 수 없는 필드입니다: " + fieldName);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 대량 입력 결과. rowsPerSecond 는 전체 시간 기준, p99BatchMs 는 chunk 하나(flush + commit) 기준
+ */
+@Data
+@AllArgsConstructor
+public class MemberIngestResult {
+
+    private long rows;
+    private int batches;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private long p99BatchMs;
+    private long maxBatchMs;
+}
@@ -0,0 +1,17 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 팀 이름 없이 teamId 로만 팀을 가리키는 회원 row. 팀 이름은 {@link NormalizedMembersDto#getTeams()} 에서 찾는다.
+ */
+@Data
+@AllArgsConstructor
+public class MemberRowDto {
+
+    private Long memberId;
+    private String userName;
+    private int age;
+    private Long teamId;
+}
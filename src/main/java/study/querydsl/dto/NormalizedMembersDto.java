@@ -0,0 +1,21 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 팀 정보를 teams(teamId -> teamName) 에 한 번만 담고 회원 row 는 teamId 로 참조하는 응답
+ * <p>
+ * 페이지 조회가 아니면 totalElements 는 members 크기와 같다.
+ */
+@Data
+@AllArgsConstructor
+public class NormalizedMembersDto {
+
+    private Map<Long, String> teams;
+    private List<MemberRowDto> members;
+    private long totalElements;
+}
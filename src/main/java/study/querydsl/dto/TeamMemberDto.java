@@ -0,0 +1,13 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TeamMemberDto {
+
+    private Long memberId;
+    private String userName;
+    private int age;
+}
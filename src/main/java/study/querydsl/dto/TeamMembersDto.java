@@ -0,0 +1,19 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 팀과 소속 회원(id 순, 최대 memberLimit 명). hasMoreMembers 면 잘린 회원이 더 있다.
+ */
+@Data
+@AllArgsConstructor
+public class TeamMembersDto {
+
+    private Long teamId;
+    private String teamName;
+    private List<TeamMemberDto> members;
+    private boolean hasMoreMembers;
+}
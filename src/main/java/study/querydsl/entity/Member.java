@@ -7,6 +7,12 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_name", columnList = "name"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_row_version", columnList = "row_version")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name", "age"})
@@ -25,6 +31,13 @@ public class Member {
     @JoinColumn(name = "team_id")
     private Team team;
 
+    /**
+     * 변경 이벤트가 전달될 때 MemberVersionStamper 가 그 position 으로 채운다. (커밋 순서대로 증가)
+     * 영속성 컨텍스트의 값은 다시 조회하기 전까지 갱신되지 않는다.
+     */
+    @Column(name = "row_version", insertable = false, updatable = false)
+    private Long rowVersion;
+
     public Member(String name) {
         this(name, 0);
     }
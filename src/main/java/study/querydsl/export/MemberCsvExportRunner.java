@@ -0,0 +1,42 @@
+package study.querydsl.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.nio.file.Path;
+
+/**
+ * 기동 시 검색 결과를 CSV 로 내보낸다.
+ * <p>
+ * {@code --querydsl.export.file=members.csv.gz --querydsl.export.condition.team-name=teamA} 처럼 실행한다.
+ * 파일 이름이 .gz 로 끝나면 gzip 으로 쓴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "querydsl.export.file")
+public class MemberCsvExportRunner implements ApplicationRunner {
+
+    private final MemberCsvExporter memberCsvExporter;
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = Path.of(environment.getRequiredProperty("querydsl.export.file"));
+        MemberSearchCondition condition = Binder.get(environment)
+                .bind("querydsl.export.condition", MemberSearchCondition.class)
+                .orElseGet(MemberSearchCondition::new);
+
+        MemberCsvExporter.ExportResult result = memberCsvExporter.export(condition, file,
+                file.getFileName().toString().endsWith(".gz"));
+        log.info("exported {} rows ({} bytes) in {}ms, {} rows/s", result.rows(), result.bytes(),
+                result.elapsedMs(), result.rowsPerSecond());
+    }
+}
@@ -0,0 +1,253 @@
+package study.querydsl.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberReadRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 검색 결과를 CSV(memberId,userName,age,teamId,teamName)로 내보낸다.
+ * <ul>
+ *     <li>member.id 의 최소 ~ 최대를 partitions 개 범위로 나누고, 범위마다 StatelessSession scroll 로 병렬로 읽는다.</li>
+ *     <li>범위마다 임시 파일에 direct buffer + FileChannel 로 쓰고, 끝나면 범위 순서대로 이어 붙인다.
+ *     각 범위는 id 순이므로 결과 파일은 항상 id 순으로 같다.</li>
+ *     <li>gzip 이면 범위마다 gzip member 를 만들어 이어 붙인다. (여러 member 로 된 gzip 파일도 표준 gzip)</li>
+ * </ul>
+ * 범위마다 다른 커넥션 / 트랜잭션으로 읽으므로 전체가 한 시점의 스냅샷은 아니다.
+ * export 중에 회원 / 팀이 바뀌지 않는다(야간 배치 등 쓰기가 멈춘 상태)고 가정한다. 쓰기가 계속되는 중이면
+ * 범위마다 읽은 시점이 달라, 예를 들어 팀 이름을 바꾸는 중이면 앞 범위에는 옛 이름, 뒤 범위에는 새 이름이 나올 수 있고
+ * 범위를 나눈 뒤에 추가된 최대 id 보다 큰 회원은 빠진다.
+ * 한 시점의 결과가 필요하면 partitions=1 로 실행한다. 쿼리 하나로 읽으므로 그 쿼리가 시작된 시점의 결과가 된다.
+ * <p>
+ * 내보내기 전용 형식이다. MemberCsvImporter 는 name,age,teamName 형식에 따옴표 필드를 지원하지 않으므로 이 파일을 다시 넣을 수 없다.
+ */
+@Slf4j
+@Component
+public class MemberCsvExporter {
+
+    private static final byte[] HEADER = "memberId,userName,age,teamId,teamName\n".getBytes(StandardCharsets.UTF_8);
+
+    private final MemberReadRepository memberReadRepository;
+    private final int partitions;
+    private final int bufferSize;
+
+    public MemberCsvExporter(MemberReadRepository memberReadRepository,
+                             @Value("${querydsl.export.partitions:4}") int partitions,
+                             @Value("${querydsl.export.buffer-size:1048576}") int bufferSize) {
+        this.memberReadRepository = memberReadRepository;
+        this.partitions = partitions;
+        this.bufferSize = bufferSize;
+    }
+
+    public ExportResult export(MemberSearchCondition condition, Path target, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        List<long[]> ranges = ranges(memberReadRepository.findIdRange(condition));
+        List<Path> parts = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, ranges.size()));
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                Path part = Files.createTempFile(target.toAbsolutePath().getParent(), "member-export-" + i + "-", ".part");
+                parts.add(part);
+                long[] range = ranges.get(i);
+                boolean header = i == 0;
+                futures.add(executor.submit(() -> writePart(condition, range, part, header, gzip)));
+            }
+            long rows = 0;
+            for (Future<Long> future : futures) {
+                rows += future.get();
+            }
+
+            long bytes = merge(parts, target, gzip);
+            long elapsedNanos = System.nanoTime() - start;
+            ExportResult result = new ExportResult(rows, ranges.size(), bytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    elapsedNanos == 0 ? 0 : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+            log.info("export {} done: {}", target, result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("export failed: " + target, e.getCause());
+        } finally {
+            executor.shutdownNow();
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    /**
+     * [fromId, toId) 범위들. 결과가 없으면 헤더만 쓰도록 빈 범위 하나
+     */
+    private List<long[]> ranges(Optional<long[]> idRange) {
+        List<long[]> ranges = new ArrayList<>();
+        if (idRange.isEmpty()) {
+            ranges.add(new long[]{0, 0});
+            return ranges;
+        }
+        long min = idRange.get()[0];
+        long max = idRange.get()[1] + 1;
+        long step = Math.max(1, (max - min + partitions - 1) / partitions);
+        for (long from = min; from < max; from += step) {
+            ranges.add(new long[]{from, Math.min(from + step, max)});
+        }
+        return ranges;
+    }
+
+    private long writePart(MemberSearchCondition condition, long[] range, Path part, boolean header, boolean gzip)
+            throws IOException {
+        try (ChannelOutputStream channelOutput = new ChannelOutputStream(FileChannel.open(part,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), bufferSize);
+             OutputStream output = gzip ? new GZIPOutputStream(channelOutput, 64 * 1024) : channelOutput) {
+            if (header) {
+                output.write(HEADER);
+            }
+            if (range[0] == range[1]) {
+                return 0;
+            }
+            StringBuilder line = new StringBuilder(128);
+            long rows = memberReadRepository.streamSearch(condition, range[0], range[1], dto -> {
+                line.setLength(0);
+                appendCsv(line, dto);
+                try {
+                    output.write(line.toString().getBytes(StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("export range [{}, {}) wrote {} rows", range[0], range[1], rows);
+            return rows;
+        }
+    }
+
+    private long merge(List<Path> parts, Path target, boolean gzip) throws IOException {
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "member-export-", gzip ? ".csv.gz" : ".csv");
+        try (FileChannel output = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path part : parts) {
+                try (FileChannel input = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = input.size();
+                    while (position < size) {
+                        position += input.transferTo(position, size - position, output);
+                    }
+                }
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(target);
+    }
+
+    static void appendCsv(StringBuilder line, MemberTeamDto dto) {
+        line.append(dto.getMemberId()).append(',');
+        appendField(line, dto.getUserName());
+        line.append(',').append(dto.getAge()).append(',');
+        if (dto.getTeamId() != null) {
+            line.append(dto.getTeamId());
+        }
+        line.append(',');
+        appendField(line, dto.getTeamName());
+        line.append('\n');
+    }
+
+    /**
+     * RFC 4180: 쉼표 / 따옴표 / 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 쓴다
+     */
+    private static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * direct buffer 에 모았다가 가득 차면 FileChannel 에 쓴다
+     */
+    private static class ChannelOutputStream extends OutputStream {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        ChannelOutputStream(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    public record ExportResult(long rows, int partitions, long bytes, long elapsedMs, long rowsPerSecond) {
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.importer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * 기동 시 회원 CSV / TSV 파일을 넣는다.
+ * <p>
+ * {@code --querydsl.import.file=members.csv} 로 실행한다. 실패하면 같은 파일로 다시 실행해 이어서 넣는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "querydsl.import.file")
+public class MemberCsvImportRunner implements ApplicationRunner {
+
+    private final MemberCsvImporter memberCsvImporter;
+
+    @Value("${querydsl.import.file}")
+    private String file;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        MemberCsvImporter.ImportResult result = memberCsvImporter.importFile(Path.of(file));
+        log.info("imported {} rows ({} skipped) in {}ms, {} rows/s", result.rows(), result.skippedRows(),
+                result.elapsedMs(), result.rowsPerSecond());
+    }
+}
@@ -0,0 +1,517 @@
+package study.querydsl.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.outbox.ChangeEvent;
+import study.querydsl.outbox.ChangeOutbox;
+import study.querydsl.repository.support.DataVersion;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CSV / TSV 회원 파일을 JDBC batch 로 member / team 에 넣는다. (한 줄: name,age,teamName / 첫 줄의 첫 필드가 name 이면 헤더)
+ * <ul>
+ *     <li>파일을 스레드 수만큼 줄 경계에서 나누고, 각 구간을 FileChannel.map 으로 읽는다.</li>
+ *     <li>나이는 바이트에서 바로 숫자로 읽고, 팀 이름은 이미 본 팀이면 String 을 만들지 않는다.</li>
+ *     <li>batch 를 커밋할 때 같은 트랜잭션에서 구간별 진행 위치를 member_import_progress 에 기록한다.
+ *     중간에 실패해도 같은 파일(경로, 크기, 수정 시각)을 다시 넣으면 커밋된 위치부터 이어서 넣는다.</li>
+ *     <li>JDBC 로 넣으므로 Hibernate 이벤트가 없다. 넣은 member / team 은 같은 트랜잭션에서 change_outbox 에 직접 남긴다.</li>
+ *     <li>member_id 는 Hibernate pooled optimizer 와 같이 member_seq 값 하나(hi)를 (hi - 49) ~ hi 50개 id 로 나눠 쓴다.
+ *     행마다 next value 를 부르면 값 하나에 id 50개가 버려진다.</li>
+ * </ul>
+ * 따옴표로 감싼 필드는 지원하지 않으며 형식이 맞지 않는 줄은 건너뛴다.
+ * 줄 경계에서 파일을 나누므로 필드 안의 줄바꿈을 다룰 수 없다. MemberCsvExporter 가 쓰는 파일(RFC 4180, 다른 컬럼)은 다시 넣을 수 없다.
+ */
+@Slf4j
+@Component
+public class MemberCsvImporter {
+
+    private static final long MAX_SPLIT_BYTES = 512L * 1024 * 1024;
+    // Member 의 @GeneratedValue 기본 allocationSize (member_seq increment by 50)
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final String INSERT_MEMBER =
+            "insert into member (member_id, name, age, team_id) values (?, ?, ?, ?)";
+    private static final String UPDATE_PROGRESS =
+            "update member_import_progress set position = ? where file_key = ? and split_index = ?";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataVersion dataVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeOutbox changeOutbox;
+    private final int threads;
+    private final int batchSize;
+
+    public MemberCsvImporter(DataSource dataSource, JdbcTemplate jdbcTemplate, DataVersion dataVersion,
+                             TransactionTemplate transactionTemplate, ChangeOutbox changeOutbox,
+                             @Value("${querydsl.import.threads:4}") int threads,
+                             @Value("${querydsl.import.batch-size:1000}") int batchSize) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataVersion = dataVersion;
+        this.transactionTemplate = transactionTemplate;
+        this.changeOutbox = changeOutbox;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importFile(Path file) throws IOException {
+        Path path = file.toAbsolutePath();
+        byte delimiter = path.getFileName().toString().endsWith(".tsv") ? (byte) '\t' : (byte) ',';
+        String fileKey = path + ":" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+        // 이번 import 의 모든 구간이 같이 쓰는 팀 이름 -> team_id
+        Map<String, CompletableFuture<Long>> teamIds = new ConcurrentHashMap<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Split> splits = loadOrCreateSplits(fileKey, channel, delimiter);
+            boolean resumed = splits.stream().anyMatch(split -> split.position() > split.start());
+            long remaining = splits.stream().mapToLong(split -> split.end() - split.position()).sum();
+            log.info("import {}: {} splits, {} bytes to read{}", path, splits.size(), remaining,
+                    resumed ? " (resumed)" : "");
+            if (splits.isEmpty()) {
+                // 빈 파일이나 헤더만 있는 파일
+                return new ImportResult(0, 0, 0, false, 0, 0);
+            }
+
+            Progress progress = new Progress(remaining);
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, splits.size()));
+            try {
+                List<Future<long[]>> futures = new ArrayList<>();
+                for (Split split : splits) {
+                    futures.add(executor.submit(() -> importSplit(channel, delimiter, fileKey, split, teamIds, progress)));
+                }
+                long rows = 0;
+                long skipped = 0;
+                for (Future<long[]> future : futures) {
+                    long[] counts = future.get();
+                    rows += counts[0];
+                    skipped += counts[1];
+                }
+                long elapsedNanos = progress.elapsedNanos();
+                ImportResult result = new ImportResult(rows, skipped, splits.size(), resumed,
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                        elapsedNanos == 0 ? 0 : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+                log.info("import {} done: {}", path, result);
+                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("import failed, rerun to resume: " + path, e.getCause());
+            } finally {
+                executor.shutdownNow();
+                // JDBC 로 직접 넣었으므로 StatementInspector 를 거치지 않는다
+                dataVersion.markChanged();
+            }
+        }
+    }
+
+    /**
+     * 같은 파일의 진행 기록이 있으면 그 구간을 그대로 쓰고, 없으면 줄 경계에서 새로 나눈다.
+     */
+    private List<Split> loadOrCreateSplits(String fileKey, FileChannel channel, byte delimiter) throws IOException {
+        jdbcTemplate.execute("create table if not exists member_import_progress (" +
+                "file_key varchar(1000) not null, split_index int not null," +
+                " start_position bigint not null, end_position bigint not null, position bigint not null," +
+                " primary key (file_key, split_index))");
+        List<Split> saved = jdbcTemplate.query(
+                "select split_index, start_position, end_position, position from member_import_progress" +
+                        " where file_key = ? order by split_index",
+                (rs, rowNum) -> new Split(rs.getInt(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+                fileKey);
+        if (!saved.isEmpty()) {
+            return saved;
+        }
+
+        long size = channel.size();
+        long start = skipHeader(channel, delimiter);
+        int count = (int) Math.max(threads, (size - start + MAX_SPLIT_BYTES - 1) / MAX_SPLIT_BYTES);
+        List<Split> splits = new ArrayList<>();
+        for (int i = 0; i < count && start < size; i++) {
+            long end = i == count - 1 ? size : nextLineStart(channel, Math.max(start, start + (size - start) / (count - i)));
+            if (end > start) {
+                splits.add(new Split(splits.size(), start, end, start));
+            }
+            start = end;
+        }
+        jdbcTemplate.batchUpdate("insert into member_import_progress" +
+                        " (file_key, split_index, start_position, end_position, position) values (?, ?, ?, ?, ?)",
+                splits.stream()
+                        .map(split -> new Object[]{fileKey, split.index(), split.start(), split.end(), split.position()})
+                        .toList());
+        return splits;
+    }
+
+    private long[] importSplit(FileChannel channel, byte delimiter, String fileKey, Split split,
+                               Map<String, CompletableFuture<Long>> teamIds, Progress progress) throws IOException, SQLException {
+        long base = split.position();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, split.end() - base);
+        TeamCache teamCache = new TeamCache();
+        byte[] scratch = new byte[256];
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(256);
+        long rows = 0;
+        long skipped = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            IdBlock ids = new IdBlock(connection);
+            List<Long> batchIds = new ArrayList<>(batchSize);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_MEMBER);
+                 PreparedStatement updateProgress = connection.prepareStatement(UPDATE_PROGRESS)) {
+                int pending = 0;
+                int lineStart = 0;
+                int limit = buffer.limit();
+                while (lineStart < limit) {
+                    int lineEnd = lineStart;
+                    while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                        lineEnd++;
+                    }
+                    int next = lineEnd + 1;
+                    if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                        lineEnd--;
+                    }
+
+                    int nameEnd = indexOf(buffer, delimiter, lineStart, lineEnd);
+                    int ageEnd = nameEnd < 0 ? -1 : indexOf(buffer, delimiter, nameEnd + 1, lineEnd);
+                    int ageTo = ageEnd < 0 ? lineEnd : ageEnd;
+                    int age = nameEnd < 0 ? -1 : parseAge(buffer, nameEnd + 1, ageTo);
+                    if (lineEnd == lineStart) {
+                        // 빈 줄
+                    } else if (nameEnd <= lineStart || age < 0) {
+                        skipped++;
+                    } else {
+                        chars = decode(decoder, buffer, lineStart, nameEnd, chars);
+                        long memberId = ids.next();
+                        batchIds.add(memberId);
+                        insert.setLong(1, memberId);
+                        insert.setString(2, chars.toString());
+                        insert.setInt(3, age);
+                        Long teamId = null;
+                        if (ageEnd >= 0 && ageEnd + 1 < lineEnd) {
+                            scratch = copy(buffer, ageEnd + 1, lineEnd, scratch);
+                            teamId = teamId(teamIds, teamCache, scratch, lineEnd - ageEnd - 1);
+                        }
+                        if (teamId == null) {
+                            insert.setNull(4, Types.BIGINT);
+                        } else {
+                            insert.setLong(4, teamId);
+                        }
+                        insert.addBatch();
+                        rows++;
+                        pending++;
+                    }
+
+                    lineStart = next;
+                    if (pending == batchSize || (lineStart >= limit && pending > 0)) {
+                        insert.executeBatch();
+                        ChangeOutbox.insert(connection, "MEMBER", batchIds, ChangeEvent.Operation.INSERT);
+                        batchIds.clear();
+                        updateProgress.setLong(1, base + Math.min(lineStart, limit));
+                        updateProgress.setString(2, fileKey);
+                        updateProgress.setInt(3, split.index());
+                        updateProgress.executeUpdate();
+                        connection.commit();
+                        progress.add(split.index(), pending, Math.min(lineStart, limit));
+                        pending = 0;
+                    }
+                }
+                if (pending == 0) {
+                    updateProgress.setLong(1, split.end());
+                    updateProgress.setString(2, fileKey);
+                    updateProgress.setInt(3, split.index());
+                    updateProgress.executeUpdate();
+                    connection.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        return new long[]{rows, skipped};
+    }
+
+    /**
+     * 팀을 찾거나 만드는 트랜잭션은 맵 밖에서 실행한다. (computeIfAbsent 안에서 실행하면 같은 bin 의 다른 팀 조회도 막힌다)
+     * 같은 이름을 여러 구간이 동시에 만나면 putIfAbsent 에 성공한 구간만 만들고 나머지는 그 결과를 기다린다.
+     */
+    private Long teamId(Map<String, CompletableFuture<Long>> teamIds, TeamCache teamCache, byte[] name, int length) {
+        long cached = teamCache.get(name, length);
+        if (cached != TeamCache.MISSING) {
+            return cached;
+        }
+        String teamName = new String(name, 0, length, StandardCharsets.UTF_8);
+        CompletableFuture<Long> teamId = teamIds.get(teamName);
+        if (teamId == null) {
+            CompletableFuture<Long> created = new CompletableFuture<>();
+            teamId = teamIds.putIfAbsent(teamName, created);
+            if (teamId == null) {
+                teamId = created;
+                try {
+                    created.complete(findOrCreateTeam(teamName));
+                } catch (RuntimeException e) {
+                    teamIds.remove(teamName, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        Long resolved = teamId.join();
+        teamCache.put(Arrays.copyOf(name, length), resolved);
+        return resolved;
+    }
+
+    /**
+     * 팀은 별도 트랜잭션으로 바로 커밋해 다른 구간의 트랜잭션에서도 참조할 수 있게 한다.
+     */
+    private Long findOrCreateTeam(String name) {
+        return transactionTemplate.execute(status -> {
+            List<Long> existing = jdbcTemplate.queryForList(
+                    "select team_id from team where name = ? order by team_id limit 1", Long.class, name);
+            if (!existing.isEmpty()) {
+                return existing.get(0);
+            }
+            Long teamId = jdbcTemplate.queryForObject("select next value for team_seq", Long.class);
+            jdbcTemplate.update("insert into team (team_id, name) values (?, ?)", teamId, name);
+            changeOutbox.record("TEAM", List.of(teamId), ChangeEvent.Operation.INSERT);
+            return teamId;
+        });
+    }
+
+    /**
+     * 첫 줄의 첫 필드 전체가 name 일 때만 헤더로 본다. ("Nameless,30,..." 같은 데이터 줄은 그대로 넣는다)
+     */
+    private long skipHeader(FileChannel channel, byte delimiter) throws IOException {
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), 5));
+        int fieldEnd = 0;
+        while (fieldEnd < head.limit()) {
+            byte b = head.get(fieldEnd);
+            if (b == delimiter || b == '\n' || b == '\r') {
+                break;
+            }
+            fieldEnd++;
+        }
+        byte[] field = new byte[fieldEnd];
+        head.get(0, field);
+        boolean header = fieldEnd == 4 && new String(field, StandardCharsets.US_ASCII).equalsIgnoreCase("name");
+        return header ? nextLineStart(channel, 0) : 0;
+    }
+
+    private long nextLineStart(FileChannel channel, long from) throws IOException {
+        long size = channel.size();
+        long position = from;
+        while (position < size) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(64 * 1024, size - position));
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += window.limit();
+        }
+        return size;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseAge(MappedByteBuffer buffer, int from, int to) {
+        if (from >= to || to - from > 9) {
+            return -1;
+        }
+        int age = 0;
+        for (int i = from; i < to; i++) {
+            byte digit = buffer.get(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            age = age * 10 + digit - '0';
+        }
+        return age;
+    }
+
+    /**
+     * 매핑된 버퍼에서 바로 UTF-8 을 풀어 재사용하는 CharBuffer 에 담는다.
+     */
+    private static CharBuffer decode(CharsetDecoder decoder, MappedByteBuffer buffer, int from, int to, CharBuffer chars) {
+        CharBuffer target = chars.capacity() >= to - from ? chars : CharBuffer.allocate(Math.max(to - from, chars.capacity() * 2));
+        target.clear();
+        decoder.reset();
+        decoder.decode(buffer.slice(from, to - from), target, true);
+        decoder.flush(target);
+        return target.flip();
+    }
+
+    private static byte[] copy(MappedByteBuffer buffer, int from, int to, byte[] scratch) {
+        byte[] target = scratch.length >= to - from ? scratch : new byte[Math.max(to - from, scratch.length * 2)];
+        buffer.get(from, target, 0, to - from);
+        return target;
+    }
+
+    private record Split(int index, long start, long end, long position) {
+    }
+
+    /**
+     * 구간(커넥션)마다 member_seq 값 하나로 id 50개를 쓴다.
+     */
+    private static class IdBlock {
+
+        private final Connection connection;
+        private long next;
+        private long hi = -1;
+
+        IdBlock(Connection connection) {
+            this.connection = connection;
+        }
+
+        long next() throws SQLException {
+            if (next > hi) {
+                // 처음 값(1)은 Hibernate 도 따로 다루므로 건너뛰고 블록이 1 이상에서 시작하는 값만 쓴다
+                do {
+                    hi = nextSequenceValue();
+                } while (hi - ID_BLOCK_SIZE + 1 < 1);
+                next = hi - ID_BLOCK_SIZE + 1;
+            }
+            return next++;
+        }
+
+        private long nextSequenceValue() throws SQLException {
+            try (PreparedStatement ps = connection.prepareStatement("select next value for member_seq");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * 구간 안에서만 쓰는 팀 이름(바이트) -> team_id open addressing 테이블. 조회할 때는 객체를 만들지 않는다.
+     */
+    private static class TeamCache {
+
+        static final long MISSING = -1;
+
+        private byte[][] names = new byte[16][];
+        private long[] teamIds = new long[16];
+        private int size;
+
+        long get(byte[] name, int length) {
+            int mask = names.length - 1;
+            for (int slot = hash(name, length) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+                if (Arrays.equals(names[slot], 0, names[slot].length, name, 0, length)) {
+                    return teamIds[slot];
+                }
+            }
+            return MISSING;
+        }
+
+        void put(byte[] name, long teamId) {
+            if ((size + 1) * 2 > names.length) {
+                byte[][] oldNames = names;
+                long[] oldTeamIds = teamIds;
+                names = new byte[oldNames.length * 2][];
+                teamIds = new long[oldNames.length * 2];
+                size = 0;
+                for (int i = 0; i < oldNames.length; i++) {
+                    if (oldNames[i] != null) {
+                        put(oldNames[i], oldTeamIds[i]);
+                    }
+                }
+            }
+            int mask = names.length - 1;
+            int slot = hash(name, name.length) & mask;
+            while (names[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            names[slot] = name;
+            teamIds[slot] = teamId;
+            size++;
+        }
+
+        private static int hash(byte[] name, int length) {
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + name[i];
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    /**
+     * 약 1초마다 진행률과 처리 속도를 로그로 남긴다.
+     */
+    private static class Progress {
+
+        private final long totalBytes;
+        private final long startedAt = System.nanoTime();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong lastLoggedAt = new AtomicLong(startedAt);
+        private final Map<Integer, Long> bytesPerSplit = new ConcurrentHashMap<>();
+
+        Progress(long totalBytes) {
+            this.totalBytes = totalBytes;
+        }
+
+        void add(int splitIndex, int committedRows, long splitBytes) {
+            Long previous = bytesPerSplit.put(splitIndex, splitBytes);
+            splitBytes -= previous == null ? 0 : previous;
+            long readBytes = bytes.addAndGet(splitBytes);
+            long total = rows.addAndGet(committedRows);
+
+            long now = System.nanoTime();
+            long last = lastLoggedAt.get();
+            if (now - last >= TimeUnit.SECONDS.toNanos(1) && lastLoggedAt.compareAndSet(last, now)) {
+                log.info("import progress: {} rows, {}%, {} rows/s", total,
+                        totalBytes == 0 ? 100 : readBytes * 100 / totalBytes,
+                        total * TimeUnit.SECONDS.toNanos(1) / (now - startedAt));
+            }
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - startedAt;
+        }
+    }
+
+    public record ImportResult(long rows, long skippedRows, int splits, boolean resumed, long elapsedMs,
+                               long rowsPerSecond) {
+    }
+}
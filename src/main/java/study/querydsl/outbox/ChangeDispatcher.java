@@ -0,0 +1,164 @@
+package study.querydsl.outbox;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * change_outbox 의 이벤트를 batch 로 listener 에게 전달한다.
+ * <ul>
+ *     <li>한 트랜잭션에서 미전달 이벤트를 id 순으로 잠그고, position 을 매겨 listener 에게 넘긴 뒤 전달 완료로 표시한다.</li>
+ *     <li>listener 가 실패하면 롤백되어 다음 poll 에 같은 이벤트가 다시 전달된다. (at-least-once)</li>
+ *     <li>position 은 change_outbox_state 카운터에서 같은 트랜잭션으로 받으므로 커밋 순서대로 빈 번호 없이 늘어난다.
+ *     GET /changes 는 이 순서로 읽는다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ChangeDispatcher {
+
+    private final ChangeOutbox changeOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ChangeListener> listeners;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollMillis;
+    private final Duration retention;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong lastPosition = new AtomicLong();
+    private volatile Instant lastPurge = Instant.EPOCH;
+    private ScheduledExecutorService executor;
+
+    public ChangeDispatcher(ChangeOutbox changeOutbox, TransactionTemplate transactionTemplate,
+                            List<ChangeListener> listeners,
+                            @Value("${querydsl.outbox.dispatcher.enabled:true}") boolean enabled,
+                            @Value("${querydsl.outbox.batch-size:500}") int batchSize,
+                            @Value("${querydsl.outbox.poll-ms:200}") long pollMillis,
+                            @Value("${querydsl.outbox.retention-ms:86400000}") long retentionMillis) {
+        this.changeOutbox = changeOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.listeners = new CopyOnWriteArrayList<>(listeners);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+        this.retention = Duration.ofMillis(retentionMillis);
+    }
+
+    public void register(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unregister(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "change-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void poll() {
+        try {
+            // 가득 찬 batch 가 나오는 동안은 쉬지 않고 이어서 전달
+            int dispatched;
+            do {
+                dispatched = dispatchOnce();
+            } while (dispatched == batchSize);
+            if (Instant.now().isAfter(lastPurge.plus(Duration.ofMinutes(1)))) {
+                lastPurge = Instant.now();
+                int purged = changeOutbox.purgeDispatchedBefore(lastPurge.minus(retention));
+                if (purged > 0) {
+                    log.debug("purged {} dispatched change events", purged);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("change dispatch failed, retrying in {}ms", pollMillis, e);
+        }
+    }
+
+    /**
+     * 미전달 이벤트를 한 batch 전달하고 전달한 건수를 돌려준다.
+     */
+    public int dispatchOnce() {
+        try {
+            Integer count = transactionTemplate.execute(status -> {
+                long position = changeOutbox.lockLastPosition();
+                List<ChangeEvent> pending = changeOutbox.lockPending(batchSize);
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                List<ChangeEvent> events = new ArrayList<>(pending.size());
+                for (ChangeEvent event : pending) {
+                    events.add(event.withPosition(++position));
+                }
+                changeOutbox.updateLastPosition(position);
+                List<ChangeEvent> readOnlyEvents = List.copyOf(events);
+                for (ChangeListener listener : listeners) {
+                    listener.onChanges(readOnlyEvents);
+                }
+                changeOutbox.markDispatched(events);
+                return events.size();
+            });
+            if (count != null && count > 0) {
+                batches.incrementAndGet();
+                delivered.addAndGet(count);
+                lastBatchSize.set(count);
+                maxBatchSize.accumulateAndGet(count, Math::max);
+                lastPosition.set(changeOutbox.lastPosition());
+            }
+            return count == null ? 0 : count;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+    }
+
+    public Metrics metrics() {
+        ChangeOutbox.Pending pending = changeOutbox.pending();
+        long lagMillis = pending.oldest() == null ? 0
+                : Math.max(0, Duration.between(pending.oldest(), Instant.now()).toMillis());
+        long batchCount = batches.get();
+        return new Metrics(pending.count(), lagMillis, lastPosition.get(), batchCount, delivered.get(),
+                failures.get(), lastBatchSize.get(), maxBatchSize.get(),
+                batchCount == 0 ? 0 : (double) delivered.get() / batchCount, listeners.size());
+    }
+
+    public record Metrics(long pending, long lagMillis, long lastPosition, long batches, long delivered,
+                          long failures, long lastBatchSize, long maxBatchSize, double averageBatchSize,
+                          int listeners) {
+    }
+}
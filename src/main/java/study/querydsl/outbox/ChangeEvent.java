@@ -0,0 +1,18 @@
+package study.querydsl.outbox;
+
+import java.time.Instant;
+
+/**
+ * change_outbox 한 행. id 는 기록 순서, position 은 dispatcher 가 전달한 순서 (전달 전에는 0)
+ */
+public record ChangeEvent(long id, long position, String aggregateType, long aggregateId,
+                          Operation operation, Instant createdAt) {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    public ChangeEvent withPosition(long position) {
+        return new ChangeEvent(id, position, aggregateType, aggregateId, operation, createdAt);
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.outbox;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Member / Team 엔티티 insert / update / delete 를 flush 하는 세션의 커넥션으로 change_outbox 에 남긴다.
+ */
+public class ChangeEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), ChangeEvent.Operation.INSERT);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), ChangeEvent.Operation.UPDATE);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), ChangeEvent.Operation.DELETE);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    static String aggregateType(Class<?> entityType) {
+        if (Member.class.isAssignableFrom(entityType)) {
+            return "MEMBER";
+        }
+        if (Team.class.isAssignableFrom(entityType)) {
+            return "TEAM";
+        }
+        return null;
+    }
+
+    private void record(SharedSessionContractImplementor session, Object entity, Object id,
+                        ChangeEvent.Operation operation) {
+        String aggregateType = aggregateType(entity.getClass());
+        if (aggregateType == null) {
+            return;
+        }
+        try {
+            ChangeOutbox.insert(session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection(),
+                    aggregateType, List.of(((Number) id).longValue()), operation);
+        } catch (SQLException e) {
+            throw new HibernateException("change_outbox insert failed", e);
+        }
+    }
+}
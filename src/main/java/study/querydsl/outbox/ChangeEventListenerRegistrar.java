@@ -0,0 +1,30 @@
+package study.querydsl.outbox;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * EntityManagerFactory 가 만들어지자마자 {@link ChangeEventListener} 를 붙인다.
+ * 다른 빈이 EntityManagerFactory 를 받아 쓰기 전이므로 기동 중 입력(InitMember)도 빠지지 않는다.
+ */
+@Component
+public class ChangeEventListenerRegistrar implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof EntityManagerFactory entityManagerFactory) {
+            ChangeEventListener listener = new ChangeEventListener();
+            EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,37 @@
+package study.querydsl.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ChangeOutbox changeOutbox;
+    private final ChangeDispatcher changeDispatcher;
+
+    /**
+     * 전달이 끝난 변경 이벤트를 position 순으로. 다음 요청은 after=next 로 이어서 읽는다.
+     */
+    @GetMapping("/changes")
+    public ChangeFeed changes(@RequestParam(defaultValue = "0") long after,
+                              @RequestParam(defaultValue = "100") int limit) {
+        List<ChangeEvent> events = changeOutbox.findAfter(after, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        long next = events.isEmpty() ? after : events.get(events.size() - 1).position();
+        return new ChangeFeed(events, next);
+    }
+
+    @GetMapping("/diagnostics/outbox")
+    public ChangeDispatcher.Metrics outbox() {
+        return changeDispatcher.metrics();
+    }
+
+    public record ChangeFeed(List<ChangeEvent> events, long next) {
+    }
+}
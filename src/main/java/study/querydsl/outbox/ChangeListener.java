@@ -0,0 +1,13 @@
+package study.querydsl.outbox;
+
+import java.util.List;
+
+/**
+ * 변경 이벤트를 position 순서대로 받는다.
+ * <p>
+ * 예외를 던지면 같은 batch 가 (다른 listener 에게도) 다시 전달되므로, event id 로 중복을 걸러야 한다.
+ */
+public interface ChangeListener {
+
+    void onChanges(List<ChangeEvent> events);
+}
@@ -0,0 +1,171 @@
+package study.querydsl.outbox;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * change_outbox 테이블
+ * <p>
+ * 변경을 만든 쪽이 같은 트랜잭션(커넥션)에서 {@link #insert} 로 남긴다.
+ * <ul>
+ *     <li>엔티티 insert / update / delete : {@link ChangeEventListener} (Hibernate 이벤트)</li>
+ *     <li>Querydsl update / delete execute() : {@link ChangeTrackingQueryFactory}</li>
+ *     <li>JDBC 직접 입력 : 각 경로(MemberCsvImporter)에서 직접</li>
+ * </ul>
+ * DB 서버에 애플리케이션 클래스가 필요 없으므로 H2 를 별도 서버(tcp)로 띄워도 된다.
+ * <p>
+ * dispatch_position 은 change_outbox_state 의 카운터로 매긴다. 전달이 끝난 행을 지워도 번호가 처음부터 다시 시작하지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class ChangeOutbox {
+
+    private static final String INSERT_SQL = "insert into change_outbox" +
+            " (id, aggregate_type, aggregate_id, operation, created_at)" +
+            " values (next value for change_seq, ?, ?, ?, current_timestamp)";
+
+    private static final String COLUMNS = "id, dispatch_position, aggregate_type, aggregate_id, operation, created_at";
+
+    private static final RowMapper<ChangeEvent> EVENT_MAPPER = (rs, rowNum) -> new ChangeEvent(
+            rs.getLong("id"),
+            rs.getLong("dispatch_position"),
+            rs.getString("aggregate_type"),
+            rs.getLong("aggregate_id"),
+            ChangeEvent.Operation.valueOf(rs.getString("operation")),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 여러 번 불러도 된다. 스냅샷을 복원한 뒤 InitMember 가 다시 부른다.
+     */
+    @PostConstruct
+    public void createSchema() {
+        jdbcTemplate.execute("create sequence if not exists change_seq");
+        jdbcTemplate.execute("create table if not exists change_outbox (" +
+                "id bigint not null primary key, dispatch_position bigint," +
+                " aggregate_type varchar(20) not null, aggregate_id bigint not null," +
+                " operation varchar(10) not null, created_at timestamp not null)");
+        jdbcTemplate.execute("create unique index if not exists change_outbox_position on change_outbox (dispatch_position)");
+        jdbcTemplate.execute("create table if not exists change_outbox_state (" +
+                "id int not null primary key, last_position bigint not null, purged_position bigint not null)");
+        jdbcTemplate.update("insert into change_outbox_state (id, last_position, purged_position)" +
+                " select 1, 0, 0 where not exists (select 1 from change_outbox_state where id = 1)");
+    }
+
+    /**
+     * 주어진 커넥션(변경을 만든 트랜잭션)으로 이벤트를 남긴다.
+     */
+    public static void insert(Connection connection, String aggregateType, Collection<Long> aggregateIds,
+                              ChangeEvent.Operation operation) throws SQLException {
+        if (aggregateIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            for (Long aggregateId : aggregateIds) {
+                ps.setString(1, aggregateType);
+                ps.setLong(2, aggregateId);
+                ps.setString(3, operation.name());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * 현재 트랜잭션으로 이벤트를 남긴다.
+     */
+    public void record(String aggregateType, Collection<Long> aggregateIds, ChangeEvent.Operation operation) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, aggregateIds.stream()
+                .map(aggregateId -> new Object[]{aggregateType, aggregateId, operation.name()})
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 아직 전달하지 않은 이벤트를 id 순서로 잠그고 가져온다.
+     */
+    public List<ChangeEvent> lockPending(int limit) {
+        return jdbcTemplate.query("select " + COLUMNS + " from change_outbox" +
+                " where dispatch_position is null order by id fetch first ? rows only for update", EVENT_MAPPER, limit);
+    }
+
+    /**
+     * 마지막 position 을 읽고 카운터 행을 트랜잭션 끝까지 잠근다.
+     * 여러 dispatcher(여러 인스턴스)가 있어도 한 번에 하나만 전달하므로 번호는 커밋 순서대로 늘어난다.
+     */
+    public long lockLastPosition() {
+        return jdbcTemplate.queryForObject(
+                "select last_position from change_outbox_state where id = 1 for update", Long.class);
+    }
+
+    public void updateLastPosition(long position) {
+        jdbcTemplate.update("update change_outbox_state set last_position = ? where id = 1", position);
+    }
+
+    public long lastPosition() {
+        return jdbcTemplate.queryForObject("select last_position from change_outbox_state where id = 1", Long.class);
+    }
+
+    /**
+     * 이 번호까지의 이벤트는 지워졌을 수 있다.
+     */
+    public long purgedPosition() {
+        return jdbcTemplate.queryForObject("select purged_position from change_outbox_state where id = 1", Long.class);
+    }
+
+    public void markDispatched(List<ChangeEvent> events) {
+        jdbcTemplate.batchUpdate("update change_outbox set dispatch_position = ? where id = ?",
+                events.stream()
+                        .map(event -> new Object[]{event.position(), event.id()})
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * position 이 after 보다 큰, 전달이 끝난 이벤트
+     */
+    public List<ChangeEvent> findAfter(long after, int limit) {
+        return jdbcTemplate.query("select " + COLUMNS + " from change_outbox" +
+                " where dispatch_position > ? order by dispatch_position fetch first ? rows only", EVENT_MAPPER, after, limit);
+    }
+
+    public Pending pending() {
+        return jdbcTemplate.queryForObject("select count(*), min(created_at) from change_outbox where dispatch_position is null",
+                (rs, rowNum) -> {
+                    Timestamp oldest = rs.getTimestamp(2);
+                    return new Pending(rs.getLong(1), oldest == null ? null : oldest.toInstant());
+                });
+    }
+
+    /**
+     * before 전에 기록되고 전달이 끝난 이벤트를 지우고 purged_position 을 올린다.
+     */
+    @Transactional
+    public int purgeDispatchedBefore(Instant before) {
+        Long through = jdbcTemplate.queryForObject("select max(dispatch_position) from change_outbox" +
+                " where dispatch_position is not null and created_at < ?", Long.class, Timestamp.from(before));
+        if (through == null) {
+            return 0;
+        }
+        jdbcTemplate.update("update change_outbox_state set purged_position = greatest(purged_position, ?) where id = 1",
+                through);
+        return jdbcTemplate.update("delete from change_outbox where dispatch_position <= ?", through);
+    }
+
+    public record Pending(long count, Instant oldest) {
+    }
+}
@@ -0,0 +1,139 @@
+package study.querydsl.outbox;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Member / Team 의 update / delete execute() 도 change_outbox 에 남기는 JPAQueryFactory
+ * <p>
+ * 벌크 연산은 Hibernate 이벤트가 없으므로, 실행 전에 같은 조건의 id 를 잠가서 읽고
+ * 그 id 로만 실행한 뒤 같은 트랜잭션에서 id 별 이벤트를 남긴다.
+ * 잠근 id 를 IN 으로 넘기므로 아주 많은 행을 바꾸는 벌크 연산에는 맞지 않는다.
+ */
+public class ChangeTrackingQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager em;
+
+    public ChangeTrackingQueryFactory(EntityManager em) {
+        super(em);
+        this.em = em;
+    }
+
+    @Override
+    public JPAUpdateClause update(EntityPath<?> path) {
+        String aggregateType = ChangeEventListener.aggregateType(path.getType());
+        return aggregateType == null ? super.update(path) : new TrackedUpdateClause(em, path, aggregateType);
+    }
+
+    @Override
+    public JPADeleteClause delete(EntityPath<?> path) {
+        String aggregateType = ChangeEventListener.aggregateType(path.getType());
+        return aggregateType == null ? super.delete(path) : new TrackedDeleteClause(em, path, aggregateType);
+    }
+
+    /**
+     * 조건에 맞는 id 를 잠가서 읽는다. 이후 실행을 이 id 로 좁히므로 그 사이 새로 들어온 행은 바뀌지 않는다.
+     */
+    private static List<Long> lockIds(EntityManager em, EntityPath<?> entity, List<Predicate> predicates) {
+        return new JPAQuery<>(em)
+                .select(idPath(entity))
+                .from(entity)
+                .where(predicates.toArray(new Predicate[0]))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+    }
+
+    private static NumberPath<Long> idPath(EntityPath<?> entity) {
+        return Expressions.numberPath(Long.class, entity, "id");
+    }
+
+    private static void record(EntityManager em, String aggregateType, List<Long> ids, ChangeEvent.Operation operation) {
+        em.unwrap(Session.class).doWork(connection -> ChangeOutbox.insert(connection, aggregateType, ids, operation));
+    }
+
+    private static class TrackedUpdateClause extends JPAUpdateClause {
+
+        private final EntityManager em;
+        private final EntityPath<?> entity;
+        private final String aggregateType;
+        private final List<Predicate> predicates = new ArrayList<>();
+
+        TrackedUpdateClause(EntityManager em, EntityPath<?> entity, String aggregateType) {
+            super(em, entity);
+            this.em = em;
+            this.entity = entity;
+            this.aggregateType = aggregateType;
+        }
+
+        @Override
+        public JPAUpdateClause where(Predicate... o) {
+            for (Predicate predicate : o) {
+                if (predicate != null) {
+                    predicates.add(predicate);
+                }
+            }
+            return super.where(o);
+        }
+
+        @Override
+        public long execute() {
+            List<Long> ids = lockIds(em, entity, predicates);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            super.where(idPath(entity).in(ids));
+            long count = super.execute();
+            record(em, aggregateType, ids, ChangeEvent.Operation.UPDATE);
+            return count;
+        }
+    }
+
+    private static class TrackedDeleteClause extends JPADeleteClause {
+
+        private final EntityManager em;
+        private final EntityPath<?> entity;
+        private final String aggregateType;
+        private final List<Predicate> predicates = new ArrayList<>();
+
+        TrackedDeleteClause(EntityManager em, EntityPath<?> entity, String aggregateType) {
+            super(em, entity);
+            this.em = em;
+            this.entity = entity;
+            this.aggregateType = aggregateType;
+        }
+
+        @Override
+        public JPADeleteClause where(Predicate... o) {
+            for (Predicate predicate : o) {
+                if (predicate != null) {
+                    predicates.add(predicate);
+                }
+            }
+            return super.where(o);
+        }
+
+        @Override
+        public long execute() {
+            List<Long> ids = lockIds(em, entity, predicates);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            super.where(idPath(entity).in(ids));
+            long count = super.execute();
+            record(em, aggregateType, ids, ChangeEvent.Operation.DELETE);
+            return count;
+        }
+    }
+}
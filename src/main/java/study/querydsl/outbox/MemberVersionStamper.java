@@ -0,0 +1,87 @@
+package study.querydsl.outbox;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.support.DataVersion;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 전달된 MEMBER 이벤트의 position 을 member.row_version 에 찍고, 삭제는 member_tombstone 에 남긴다.
+ * 변경 목록에 팀 이름이 들어가므로 TEAM 수정 / 삭제 이벤트는 그 팀 회원 전체에 position 을 찍는다.
+ * <p>
+ * dispatcher 트랜잭션 안에서 불리므로 버전은 position 과 함께 커밋 순서대로 보인다.
+ * 어떤 클라이언트가 버전 N 을 받았다면 N 이하 버전은 이미 모두 커밋되어 있다.
+ * purge 로 지워진 이벤트 범위(change_outbox_state.purged_position 이하)의 tombstone 도 지운다.
+ */
+@Component
+@RequiredArgsConstructor
+@DependsOn("changeOutbox")
+public class MemberVersionStamper implements ChangeListener {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataVersion dataVersion;
+    private volatile Instant lastPurge = Instant.EPOCH;
+
+    /**
+     * 여러 번 불러도 된다. 스냅샷을 복원한 뒤 InitMember 가 다시 부른다.
+     */
+    @PostConstruct
+    public void createSchema() {
+        jdbcTemplate.execute("create table if not exists member_tombstone (" +
+                "member_id bigint not null primary key, row_version bigint not null)");
+        jdbcTemplate.execute("create index if not exists idx_member_tombstone_row_version" +
+                " on member_tombstone (row_version)");
+        // 버전 없이 들어와 있는 회원(이벤트 기록 전 데이터)은 INSERT 이벤트로 다시 흘려보낸다
+        jdbcTemplate.update("insert into change_outbox (id, aggregate_type, aggregate_id, operation, created_at)" +
+                " select next value for change_seq, 'MEMBER', m.member_id, 'INSERT', current_timestamp from member m" +
+                " where m.row_version is null and not exists (select 1 from change_outbox o" +
+                " where o.aggregate_type = 'MEMBER' and o.aggregate_id = m.member_id and o.dispatch_position is null)");
+    }
+
+    @Override
+    public void onChanges(List<ChangeEvent> events) {
+        List<Object[]> versions = new ArrayList<>();
+        List<Object[]> tombstones = new ArrayList<>();
+        List<Object[]> teamVersions = new ArrayList<>();
+        for (ChangeEvent event : events) {
+            if ("TEAM".equals(event.aggregateType())) {
+                if (event.operation() != ChangeEvent.Operation.INSERT) {
+                    teamVersions.add(new Object[]{event.position(), event.aggregateId(), event.position()});
+                }
+                continue;
+            }
+            if (!"MEMBER".equals(event.aggregateType())) {
+                continue;
+            }
+            if (event.operation() == ChangeEvent.Operation.DELETE) {
+                tombstones.add(new Object[]{event.aggregateId(), event.position()});
+            } else {
+                versions.add(new Object[]{event.position(), event.aggregateId()});
+            }
+        }
+        if (versions.isEmpty() && tombstones.isEmpty() && teamVersions.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate("update member set row_version = ? where member_id = ?", versions);
+        // 같은 묶음의 더 뒤 MEMBER 이벤트가 찍은 버전을 낮추지 않는다
+        jdbcTemplate.batchUpdate("update member set row_version = ?" +
+                " where team_id = ? and (row_version is null or row_version < ?)", teamVersions);
+        // 재기동으로 member_seq 가 다시 시작하면 같은 id 가 또 지워질 수 있다
+        jdbcTemplate.batchUpdate("merge into member_tombstone key (member_id) values (?, ?)", tombstones);
+        if (Instant.now().isAfter(lastPurge.plus(Duration.ofMinutes(1)))) {
+            lastPurge = Instant.now();
+            jdbcTemplate.update("delete from member_tombstone where row_version <=" +
+                    " (select purged_position from change_outbox_state where id = 1)");
+        }
+        // /members/changes 응답이 바뀌었으므로 ETag 도 바꾼다
+        dataVersion.markChanged();
+    }
+}
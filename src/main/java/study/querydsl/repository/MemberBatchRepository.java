@@ -0,0 +1,11 @@
+package study.querydsl.repository;
+
+import study.querydsl.entity.Member;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MemberBatchRepository {
+    List<Member> findAllByIds(Collection<Long> ids);
+    List<Member> findByNames(Collection<String> names);
+}
@@ -0,0 +1,26 @@
+package study.querydsl.repository;
+
+import lombok.RequiredArgsConstructor;
+import study.querydsl.entity.Member;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 구현은 {@link MemberJpaRepository} 하나에 두고 위임한다.
+ */
+@RequiredArgsConstructor
+public class MemberBatchRepositoryImpl implements MemberBatchRepository {
+
+    private final MemberJpaRepository memberJpaRepository;
+
+    @Override
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        return memberJpaRepository.findAllByIds(ids);
+    }
+
+    @Override
+    public List<Member> findByNames(Collection<String> names) {
+        return memberJpaRepository.findByNames(names);
+    }
+}
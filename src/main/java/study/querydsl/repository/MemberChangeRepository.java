@@ -0,0 +1,71 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberChangeDto;
+import study.querydsl.dto.MemberChangesDto;
+import study.querydsl.outbox.ChangeOutbox;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 버전 이후 바뀐 회원 (delta sync)
+ * <p>
+ * 버전은 change_outbox 의 dispatch_position 이다. MemberVersionStamper 가 전달 트랜잭션에서
+ * member.row_version / member_tombstone.row_version 에 찍으므로 커밋 순서대로 늘어나고,
+ * 받아 간 버전보다 작은 변경이 나중에 나타나지 않는다.
+ * 아직 전달되지 않은 변경은 전달된 뒤에 보인다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberChangeRepository {
+
+    private final JPAQueryFactory queryFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeOutbox changeOutbox;
+
+    /**
+     * since 보다 큰 버전의 변경을 버전 순으로 최대 limit 개. 같은 회원은 마지막 상태 하나만 나온다.
+     */
+    public MemberChangesDto findChangesSince(long since, int limit) {
+        if (since > 0 && since < changeOutbox.purgedPosition()) {
+            return new MemberChangesDto(List.of(), since, false, true);
+        }
+
+        List<MemberChangeDto> changes = new ArrayList<>();
+        List<Tuple> rows = queryFactory
+                .select(member.id, member.name, member.age, team.id, team.name, member.rowVersion)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.rowVersion.gt(since))
+                .orderBy(member.rowVersion.asc())
+                .limit(limit + 1)
+                .fetch();
+        for (Tuple row : rows) {
+            changes.add(new MemberChangeDto(row.get(member.id), row.get(member.name), row.get(member.age),
+                    row.get(team.id), row.get(team.name), row.get(member.rowVersion), false));
+        }
+        changes.addAll(jdbcTemplate.query(
+                "select member_id, row_version from member_tombstone" +
+                        " where row_version > ? order by row_version fetch first ? rows only",
+                (rs, rowNum) -> MemberChangeDto.tombstone(rs.getLong(1), rs.getLong(2)),
+                since, limit + 1));
+
+        // 두 목록 각각 limit + 1 개씩이면 합친 앞쪽 limit 개는 빠짐없이 들어 있다
+        changes.sort(Comparator.comparingLong(MemberChangeDto::getVersion));
+        boolean hasMore = changes.size() > limit;
+        List<MemberChangeDto> content = hasMore ? new ArrayList<>(changes.subList(0, limit)) : changes;
+        long version = content.isEmpty() ? since : content.get(content.size() - 1).getVersion();
+        return new MemberChangesDto(content, version, hasMore, false);
+    }
+}
@@ -0,0 +1,157 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.support.DataVersion;
+import study.querydsl.repository.support.EstimatedPage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀별 / 나이 구간별 회원 수 히스토그램으로 검색 결과 건수를 추정한다.
+ * <p>
+ * 히스토그램은 group by 한 번으로 만들고, {@link DataVersion} 이 바뀐 뒤 refresh-interval 이 지나면 다시 만든다.
+ * 구간 일부만 걸치는 나이 조건은 구간 안에서 균등 분포를 가정해 보간하므로,
+ * 추정 오차는 걸친 구간들의 회원 수 합 이하로 제한된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCountEstimator {
+
+    static final int BUCKET_WIDTH = 10;
+
+    private final JPAQueryFactory queryFactory;
+    private final DataVersion dataVersion;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Value("${querydsl.count-estimate.refresh-interval-ms:10000}")
+    private long refreshIntervalMs;
+
+    private volatile Histogram histogram;
+
+    /**
+     * 이름 조건은 히스토그램으로 추정할 수 없으므로 empty 를 반환한다. (정확한 count 로 대체)
+     */
+    public Optional<Estimate> estimate(MemberSearchCondition condition) {
+        if (StringUtils.hasLength(condition.getUserName())) {
+            return Optional.empty();
+        }
+        Histogram current = currentHistogram();
+
+        int goe = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+        int loe = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+        if (goe > loe) {
+            return Optional.of(new Estimate(0, 0));
+        }
+
+        double total = 0;
+        long error = 0;
+        for (Map.Entry<String, Map<Integer, Long>> teamEntry : current.counts().entrySet()) {
+            if (StringUtils.hasLength(condition.getTeamName()) && !condition.getTeamName().equals(teamEntry.getKey())) {
+                continue;
+            }
+            for (Map.Entry<Integer, Long> bucketEntry : teamEntry.getValue().entrySet()) {
+                long bucketLow = (long) bucketEntry.getKey() * BUCKET_WIDTH;
+                long bucketHigh = bucketLow + BUCKET_WIDTH - 1;
+                long overlap = Math.min(bucketHigh, loe) - Math.max(bucketLow, goe) + 1;
+                if (overlap <= 0) {
+                    continue;
+                }
+                long count = bucketEntry.getValue();
+                if (overlap >= BUCKET_WIDTH) {
+                    total += count;
+                } else {
+                    total += (double) count * overlap / BUCKET_WIDTH;
+                    error += count;
+                }
+            }
+        }
+        return Optional.of(new Estimate(Math.round(total), error));
+    }
+
+    /**
+     * 마지막 페이지처럼 content 로 total 을 알 수 있으면 정확한 값을, 추정할 수 없으면 exactCount 를 사용한다.
+     */
+    public <T> Page<T> toPage(List<T> content, Pageable pageable, MemberSearchCondition condition, LongSupplier exactCount) {
+        long minimum = pageable.getOffset() + content.size();
+        if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return new EstimatedPage<>(content, pageable, minimum, false, 0);
+        }
+
+        Optional<Estimate> estimate = estimate(condition);
+        if (estimate.isEmpty()) {
+            return new EstimatedPage<>(content, pageable, exactCount.getAsLong(), false, 0);
+        }
+        long total = Math.max(estimate.get().total(), minimum);
+        return new EstimatedPage<>(content, pageable, total, true, estimate.get().error());
+    }
+
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            histogram = build();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Histogram currentHistogram() {
+        Histogram current = histogram;
+        if (current == null) {
+            refresh();
+            return histogram;
+        }
+        boolean stale = current.version() != dataVersion.current()
+                && System.currentTimeMillis() - current.builtAt() >= refreshIntervalMs;
+        if (stale && refreshLock.tryLock()) {
+            try {
+                histogram = build();
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return histogram;
+    }
+
+    private Histogram build() {
+        long version = dataVersion.current();
+        NumberExpression<Long> memberCount = member.count();
+        List<Tuple> rows = queryFactory
+                .select(team.name, member.age, memberCount)
+                .from(member)
+                .leftJoin(member.team, team)
+                .groupBy(team.name, member.age)
+                .fetch();
+
+        Map<String, Map<Integer, Long>> counts = new HashMap<>();
+        for (Tuple row : rows) {
+            int bucket = Math.floorDiv(row.get(member.age), BUCKET_WIDTH);
+            counts.computeIfAbsent(row.get(team.name), key -> new HashMap<>())
+                    .merge(bucket, row.get(memberCount), Long::sum);
+        }
+        return new Histogram(version, System.currentTimeMillis(), Collections.unmodifiableMap(counts));
+    }
+
+    public record Estimate(long total, long error) {
+    }
+
+    private record Histogram(long version, long builtAt, Map<String, Map<Integer, Long>> counts) {
+    }
+}
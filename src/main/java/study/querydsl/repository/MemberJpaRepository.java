@@ -2,17 +2,29 @@ package study.querydsl.repository;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+import study.querydsl.repository.support.InQueryChunks;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static study.querydsl.entity.QMember.*;
@@ -57,6 +69,162 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        List<Member> results = new ArrayList<>();
+        for (List<Long> chunk : InQueryChunks.split(ids, InQueryChunks.DEFAULT_CHUNK_SIZE)) {
+            results.addAll(queryFactory
+                    .selectFrom(member)
+                    .where(member.id.in(chunk))
+                    .fetch());
+        }
+        return results;
+    }
+
+    public List<Member> findByNames(Collection<String> names) {
+        List<Member> results = new ArrayList<>();
+        for (List<String> chunk : InQueryChunks.split(names, InQueryChunks.DEFAULT_CHUNK_SIZE)) {
+            results.addAll(queryFactory
+                    .selectFrom(member)
+                    .where(member.name.in(chunk))
+                    .fetch());
+        }
+        return results;
+    }
+
+    public List<MemberTeamDto> searchByIds(Collection<Long> ids) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("userName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids))
+                .fetch();
+    }
+
+    public List<MemberTeamDto> searchByNames(Collection<String> names) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("userName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.name.in(names))
+                .fetch();
+    }
+
+    /**
+     * 키 목록을 배열 파라미터 하나로 넘겨 unnest 한 임시 테이블과 join 한다. (IN 절 없이 statement 1개)
+     * <p>
+     * JDBC 로 직접 실행해 auto flush 가 일어나지 않으므로 먼저 flush 해서 영속성 컨텍스트의 변경이 보이게 한다.
+     */
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchByIdsJoin(Collection<Long> ids) {
+        return searchByKeyJoin("bigint", "m.member_id", ids);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchByNamesJoin(Collection<String> names) {
+        return searchByKeyJoin("varchar", "m.name", names);
+    }
+
+    private List<MemberTeamDto> searchByKeyJoin(String keyType, String keyColumn, Collection<?> keys) {
+        String sql = "select m.member_id, m.name, m.age, t.team_id, t.name" +
+                " from unnest(cast(? as " + keyType + " array)) as k(key_value)" +
+                " join member m on " + keyColumn + " = k.key_value" +
+                " left join team t on t.team_id = m.team_id";
+
+        em.flush();
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setArray(1, connection.createArrayOf(keyType, keys.stream().distinct().toArray()));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return toMemberTeamDtos(resultSet);
+                }
+            }
+        });
+    }
+
+    /**
+     * 팀별 나이 순 상위 size 명 (나이가 같으면 id 순)
+     * <p>
+     * row_number() 윈도 함수로 (team_id, age) 인덱스를 한 번 훑어 순위를 매긴다.
+     * JDBC 로 직접 실행하므로 먼저 flush 한다.
+     */
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> findTopByAgePerTeam(int size, boolean youngest) {
+        String direction = youngest ? "asc" : "desc";
+        String sql = "select member_id, name, age, team_id, team_name from (" +
+                " select m.member_id, m.name, m.age, t.team_id, t.name as team_name," +
+                " row_number() over (partition by m.team_id order by m.age " + direction + ", m.member_id) as ranking" +
+                " from member m join team t on t.team_id = m.team_id) ranked" +
+                " where ranking <= ?" +
+                " order by team_id, ranking";
+
+        em.flush();
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, size);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return toMemberTeamDtos(resultSet);
+                }
+            }
+        });
+    }
+
+    /**
+     * {@link #findTopByAgePerTeam} 와 같은 결과를 상관 서브쿼리로 구한다. (비교 / 벤치마크용)
+     * <p>
+     * 회원마다 같은 팀에서 순위가 앞선 회원 수를 다시 세므로 팀 크기의 제곱에 비례한다.
+     */
+    public List<MemberTeamDto> findTopByAgePerTeam_Subquery(int size, boolean youngest) {
+        QMember memberSub = new QMember("memberSub");
+        BooleanExpression ahead = youngest
+                ? memberSub.age.lt(member.age).or(memberSub.age.eq(member.age).and(memberSub.id.lt(member.id)))
+                : memberSub.age.gt(member.age).or(memberSub.age.eq(member.age).and(memberSub.id.lt(member.id)));
+
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("userName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .join(member.team, team)
+                .where(JPAExpressions
+                        .select(memberSub.count())
+                        .from(memberSub)
+                        .where(memberSub.team.eq(member.team), ahead)
+                        .lt((long) size))
+                .orderBy(team.id.asc(), youngest ? member.age.asc() : member.age.desc(), member.id.asc())
+                .fetch();
+    }
+
+    /**
+     * 같은 팀 이름은 결과 안에서 String 하나를 같이 쓰도록 한다. (row 마다 만들어진 사본은 바로 버려짐)
+     */
+    private List<MemberTeamDto> toMemberTeamDtos(ResultSet resultSet) throws SQLException {
+        List<MemberTeamDto> results = new ArrayList<>();
+        Map<String, String> teamNames = new HashMap<>();
+        while (resultSet.next()) {
+            String teamName = resultSet.getString(5);
+            results.add(new MemberTeamDto(
+                    resultSet.getLong(1),
+                    resultSet.getString(2),
+                    resultSet.getInt(3),
+                    resultSet.getObject(4, Long.class),
+                    teamName == null ? null : teamNames.computeIfAbsent(teamName, name -> name)));
+        }
+        return results;
+    }
+
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
 
         BooleanBuilder builder = new BooleanBuilder();
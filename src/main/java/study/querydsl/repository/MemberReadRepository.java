@@ -0,0 +1,454 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.AgeBucketDto;
+import study.querydsl.dto.MemberField;
+import study.querydsl.dto.MemberRowDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.NormalizedMembersDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 조회 / export 전용 repository
+ * <p>
+ * 직접 시작한 readOnly 트랜잭션이면 Spring 이 FlushMode.MANUAL 과 기본 read-only 세션을 설정한다.
+ * 쓰기 트랜잭션 안에서 불리면 그 세션에 합류하므로 이 설정은 바뀌지 않고, 쿼리마다 붙인 read-only 힌트만 적용된다.
+ * 이때도 이 쿼리가 새로 읽은 엔티티는 스냅샷 없이 read-only 로 올라가지만, 이미 영속성 컨텍스트에 있던 엔티티와
+ * 나중에 지연 로딩되는 연관 엔티티는 그대로 dirty checking 대상이다.
+ * 대량 export 는 영속성 컨텍스트가 없는 StatelessSession 의 scroll 로 한 건씩 흘려보낸다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberReadRepository {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private final JPAQueryFactory queryFactory;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    public Optional<Member> findById(Long id) {
+        return Optional.ofNullable(queryFactory
+                .selectFrom(member)
+                .where(member.id.eq(id))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .fetchOne());
+    }
+
+    public List<Member> findAll() {
+        return queryFactory
+                .selectFrom(member)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .fetch();
+    }
+
+    public List<Member> findByName(String name) {
+        return queryFactory
+                .selectFrom(member)
+                .where(member.name.eq(name))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .fetch();
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("userName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .fetch();
+    }
+
+    /**
+     * 요청한 컬럼만 조회한다. 결과의 키 / 값은 {@link MemberTeamDto} 의 같은 프로퍼티와 같다.
+     * <p>
+     * teamName 을 요청하지 않았고 팀 이름 조건도 없으면 team 을 join 하지 않는다. (teamId 는 member.team_id)
+     */
+    public List<Map<String, Object>> searchFields(MemberSearchCondition condition, Set<MemberField> fields) {
+        Map<MemberField, Expression<?>> columns = columns(condition, fields);
+        return toMaps(selectFields(condition, columns).fetch(), columns);
+    }
+
+    public Page<Map<String, Object>> searchPageFields(MemberSearchCondition condition, Set<MemberField> fields,
+                                                     Pageable pageable) {
+        Map<MemberField, Expression<?>> columns = columns(condition, fields);
+        List<Map<String, Object>> content = toMaps(selectFields(condition, columns)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch(), columns);
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(member.count())
+                .from(member);
+        if (StringUtils.hasLength(condition.getTeamName())) {
+            countQuery.join(member.team, team);
+        }
+        countQuery.where(memberNameEq(condition.getUserName()),
+                teamNameEq(condition.getTeamName()),
+                memberAgeGoe(condition.getAgeGoe()),
+                memberAgeLoe(condition.getAgeLoe()));
+
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    public Slice<Map<String, Object>> searchSliceFields(MemberSearchCondition condition, Set<MemberField> fields,
+                                                       Pageable pageable) {
+        Map<MemberField, Expression<?>> columns = columns(condition, fields);
+        // count 쿼리 없이 limit + 1 건으로 다음 페이지 존재 여부만 판단
+        List<Map<String, Object>> content = toMaps(selectFields(condition, columns)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch(), columns);
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private Map<MemberField, Expression<?>> columns(MemberSearchCondition condition, Set<MemberField> fields) {
+        boolean teamJoin = StringUtils.hasLength(condition.getTeamName())
+                || fields.stream().anyMatch(MemberField::isTeamJoinRequired);
+
+        Map<MemberField, Expression<?>> columns = new LinkedHashMap<>();
+        for (MemberField field : MemberField.values()) {
+            if (!fields.contains(field)) {
+                continue;
+            }
+            columns.put(field, switch (field) {
+                case MEMBER_ID -> member.id;
+                case USER_NAME -> member.name;
+                case AGE -> member.age;
+                case TEAM_ID -> teamJoin ? team.id : member.team.id;
+                case TEAM_NAME -> team.name;
+            });
+        }
+        return columns;
+    }
+
+    private JPAQuery<Tuple> selectFields(MemberSearchCondition condition, Map<MemberField, Expression<?>> columns) {
+        JPAQuery<Tuple> query = queryFactory
+                .select(columns.values().toArray(Expression<?>[]::new))
+                .from(member);
+        if (columns.containsKey(MemberField.TEAM_NAME) || StringUtils.hasLength(condition.getTeamName())) {
+            query.leftJoin(member.team, team);
+        }
+        return query
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()))
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    private List<Map<String, Object>> toMaps(List<Tuple> rows, Map<MemberField, Expression<?>> columns) {
+        List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            columns.forEach((field, column) -> result.put(field.getFieldName(), row.get(column)));
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * 회원 row 에는 teamId 만 담고, 팀 이름은 페이지에 나온 팀들만 따로 한 번씩 조회한다.
+     * <p>
+     * 회원 쿼리는 팀 이름 조건이 없으면 team 을 join 하지 않으므로 같은 팀 이름 문자열을 row 마다
+     * 읽거나 만들지 않는다. (쿼리 2개: 회원, 팀 이름)
+     */
+    public NormalizedMembersDto searchNormalized(MemberSearchCondition condition) {
+        List<MemberRowDto> members = selectMemberRows(condition).fetch();
+        return new NormalizedMembersDto(findTeamNames(members), members, members.size());
+    }
+
+    public NormalizedMembersDto searchPageNormalized(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberRowDto> members = selectMemberRows(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(member.count())
+                .from(member);
+        if (StringUtils.hasLength(condition.getTeamName())) {
+            countQuery.join(member.team, team);
+        }
+        countQuery.where(memberNameEq(condition.getUserName()),
+                teamNameEq(condition.getTeamName()),
+                memberAgeGoe(condition.getAgeGoe()),
+                memberAgeLoe(condition.getAgeLoe()));
+
+        long total = PageableExecutionUtils.getPage(members, pageable, countQuery::fetchOne).getTotalElements();
+        return new NormalizedMembersDto(findTeamNames(members), members, total);
+    }
+
+    private JPAQuery<MemberRowDto> selectMemberRows(MemberSearchCondition condition) {
+        JPAQuery<MemberRowDto> query = queryFactory
+                .select(Projections.constructor(MemberRowDto.class,
+                        member.id,
+                        member.name,
+                        member.age,
+                        member.team.id))
+                .from(member);
+        if (StringUtils.hasLength(condition.getTeamName())) {
+            query.join(member.team, team);
+        }
+        return query
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()))
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    private Map<Long, String> findTeamNames(List<MemberRowDto> members) {
+        Set<Long> teamIds = new LinkedHashSet<>();
+        for (MemberRowDto row : members) {
+            if (row.getTeamId() != null) {
+                teamIds.add(row.getTeamId());
+            }
+        }
+        Map<Long, String> teams = new LinkedHashMap<>();
+        if (teamIds.isEmpty()) {
+            return teams;
+        }
+        List<Tuple> rows = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .where(team.id.in(teamIds))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .fetch();
+        Map<Long, String> namesById = new HashMap<>();
+        for (Tuple row : rows) {
+            namesById.put(row.get(team.id), row.get(team.name));
+        }
+        for (Long teamId : teamIds) {
+            teams.put(teamId, namesById.get(teamId));
+        }
+        return teams;
+    }
+
+    /**
+     * 나이 구간별 회원 수를 DB 에서 CASE ... GROUP BY 로 집계한다.
+     * <p>
+     * bounds 가 {20, 30} 이면 20 미만 / 20~29 / 30 이상 세 구간이 되고, 회원이 없는 구간은 나오지 않는다.
+     * byTeam 이면 모든 팀의 구간을 한 번의 쿼리로 함께 집계한다.
+     */
+    public List<AgeBucketDto> ageHistogram(MemberSearchCondition condition, int[] bounds, boolean byTeam) {
+        int[] sortedBounds = Arrays.stream(bounds).distinct().sorted().toArray();
+        if (sortedBounds.length == 0) {
+            throw new IllegalArgumentException("구간 경계가 하나 이상 필요합니다.");
+        }
+        NumberExpression<Integer> bucket = ageBucket(sortedBounds);
+        NumberExpression<Long> memberCount = member.count();
+
+        JPAQuery<Tuple> query = queryFactory
+                .select(byTeam ? new Expression<?>[]{team.id, team.name, bucket, memberCount}
+                        : new Expression<?>[]{bucket, memberCount})
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()))
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (byTeam) {
+            query.groupBy(team.id, team.name, bucket)
+                    .orderBy(team.id.asc().nullsLast(), bucket.asc());
+        } else {
+            query.groupBy(bucket)
+                    .orderBy(bucket.asc());
+        }
+
+        List<AgeBucketDto> results = new ArrayList<>();
+        for (Tuple row : query.fetch()) {
+            int index = row.get(bucket);
+            results.add(new AgeBucketDto(
+                    byTeam ? row.get(team.id) : null,
+                    byTeam ? row.get(team.name) : null,
+                    index > 0 ? sortedBounds[index - 1] : null,
+                    index < sortedBounds.length ? sortedBounds[index] : null,
+                    row.get(memberCount)));
+        }
+        return results;
+    }
+
+    /**
+     * 구간 번호(0 부터)를 돌려주는 CASE 식
+     * <p>
+     * 경계값을 바인딩 파라미터로 넘기면 SELECT 와 GROUP BY 의 식이 서로 다른 파라미터가 되어
+     * DB 가 같은 식으로 보지 않으므로, 검증된 int 경계값을 SQL 에 그대로 넣는다.
+     */
+    private NumberExpression<Integer> ageBucket(int[] sortedBounds) {
+        StringBuilder template = new StringBuilder("case");
+        for (int i = 0; i < sortedBounds.length; i++) {
+            template.append(" when {0} < ").append(sortedBounds[i]).append(" then ").append(i);
+        }
+        template.append(" else ").append(sortedBounds.length).append(" end");
+        return Expressions.numberTemplate(Integer.class, template.toString(), member.age);
+    }
+
+    /**
+     * 검색 조건에 맞는 member.id 의 최소 / 최대값. 결과가 없으면 빈 값
+     */
+    public Optional<long[]> findIdRange(MemberSearchCondition condition) {
+        Tuple range = queryFactory
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()))
+                .fetchOne();
+        if (range == null || range.get(member.id.min()) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new long[]{range.get(member.id.min()), range.get(member.id.max())});
+    }
+
+    /**
+     * StatelessSession 으로 Member(+Team) 를 한 건씩 넘긴다. 넘긴 엔티티는 어디에도 보관되지 않는다.
+     * <p>
+     * 조회 전에 flush 하지 않으므로 호출자 트랜잭션에서 아직 flush 되지 않은 변경은 보이지 않는다.
+     */
+    public long streamMembers(Consumer<Member> consumer) {
+        return scroll("select m from Member m left join fetch m.team order by m.id", Member.class, Map.of(), consumer);
+    }
+
+    public long streamSearch(MemberSearchCondition condition, Consumer<MemberTeamDto> consumer) {
+        return streamSearch(condition, null, null, consumer);
+    }
+
+    /**
+     * member.id 가 fromId 이상 toId 미만인 범위만 (null 이면 제한 없음)
+     */
+    public long streamSearch(MemberSearchCondition condition, Long fromId, Long toId, Consumer<MemberTeamDto> consumer) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (fromId != null) {
+            predicates.add("m.id >= :fromId");
+            parameters.put("fromId", fromId);
+        }
+        if (toId != null) {
+            predicates.add("m.id < :toId");
+            parameters.put("toId", toId);
+        }
+        if (StringUtils.hasLength(condition.getUserName())) {
+            predicates.add("m.name = :userName");
+            parameters.put("userName", condition.getUserName());
+        }
+        if (StringUtils.hasLength(condition.getTeamName())) {
+            predicates.add("t.name = :teamName");
+            parameters.put("teamName", condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            predicates.add("m.age >= :ageGoe");
+            parameters.put("ageGoe", condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            predicates.add("m.age <= :ageLoe");
+            parameters.put("ageLoe", condition.getAgeLoe());
+        }
+
+        String hql = "select new study.querydsl.dto.MemberTeamDto(m.id, m.name, m.age, t.id, t.name)" +
+                " from Member m left join m.team t" +
+                (predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates)) +
+                " order by m.id";
+        return scroll(hql, MemberTeamDto.class, parameters, consumer);
+    }
+
+    private <T> long scroll(String hql, Class<T> resultType, Map<String, Object> parameters, Consumer<T> consumer) {
+        // 트랜잭션 커넥션을 그대로 사용해 같은 트랜잭션의 변경도 보이게 한다
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        StatelessSession session = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession(connection);
+        try {
+            Query<T> query = session.createQuery(hql, resultType)
+                    .setFetchSize(FETCH_SIZE)
+                    .setReadOnly(true);
+            parameters.forEach(query::setParameter);
+
+            long count = 0;
+            try (ScrollableResults<T> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    consumer.accept(results.get());
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            session.close();
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private BooleanExpression memberNameEq(String userName) {
+        return StringUtils.hasLength(userName) ? member.name.eq(userName) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return StringUtils.hasLength(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression memberAgeGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression memberAgeLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
@@ -6,11 +6,14 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.util.StringUtils;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.support.DeferredJoin;
 
 import java.util.List;
 
@@ -21,6 +24,7 @@ import static study.querydsl.entity.QTeam.team;
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final JPAQueryFactory queryFactory;
+    private final MemberCountEstimator countEstimator;
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
@@ -83,6 +87,104 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
     }
 
+    /**
+     * 깊은 offset 용 deferred join 페이징 (member.id 순)
+     * <p>
+     * offset 만큼 건너뛰는 작업은 join 없이 인덱스만 읽는 id 쿼리에서 하고,
+     * member + team 컬럼은 해당 페이지의 id 들만 가져온다.
+     */
+    @Override
+    public Page<MemberTeamDto> searchPageDeferred(MemberSearchCondition condition, Pageable pageable) {
+        JPAQuery<Long> idQuery = queryFactory
+                .select(member.id)
+                .from(member);
+        if (StringUtils.hasLength(condition.getTeamName())) {
+            idQuery.join(member.team, team);
+        }
+        List<Long> ids = idQuery
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()))
+                .orderBy(member.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        List<MemberTeamDto> content = ids.isEmpty() ? List.of() : DeferredJoin.inIdOrder(ids, queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("userName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids))
+                .fetch(), MemberTeamDto::getMemberId);
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()));
+
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        // count 쿼리 없이 limit + 1 건으로 다음 페이지 존재 여부만 판단
+        List<MemberTeamDto> content = selectMemberTeamDto(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageEstimated(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = selectMemberTeamDto(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()));
+
+        return countEstimator.toPage(content, pageable, condition, countQuery::fetchOne);
+    }
+
+    private JPAQuery<MemberTeamDto> selectMemberTeamDto(MemberSearchCondition condition) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.name.as("userName"),
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()));
+    }
+
     private BooleanExpression memberNameEq(String userName) {
         return StringUtils.hasLength(userName) ? member.name.eq(userName) : null;
     }
@@ -4,6 +4,7 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
@@ -76,6 +77,41 @@ public class MemberRepositorySupport extends Querydsl4RepositorySupport<Member>
                                 memberAgeLoe(condition.getAgeLoe())));
     }
 
+    public Slice<Member> applySlice(MemberSearchCondition condition, Pageable pageable) {
+        return applySlice(pageable, query -> query
+                .selectFrom(member)
+                .leftJoin(member.team, team)
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe())));
+    }
+
+    public Page<Member> applyDeferredPagination(MemberSearchCondition condition, Pageable pageable) {
+        return applyDeferredPagination(pageable,
+                idQuery -> idQuery
+                        .select(member.id)
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(memberNameEq(condition.getUserName()),
+                                teamNameEq(condition.getTeamName()),
+                                memberAgeGoe(condition.getAgeGoe()),
+                                memberAgeLoe(condition.getAgeLoe())),
+                (contentQuery, ids) -> contentQuery
+                        .selectFrom(member)
+                        .leftJoin(member.team, team).fetchJoin()
+                        .where(member.id.in(ids)),
+                Member::getId,
+                countQuery -> countQuery
+                        .select(member.count())
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(memberNameEq(condition.getUserName()),
+                                teamNameEq(condition.getTeamName()),
+                                memberAgeGoe(condition.getAgeGoe()),
+                                memberAgeLoe(condition.getAgeLoe())));
+    }
+
     private BooleanExpression memberNameEq(String userName) {
         return StringUtils.hasLength(userName) ? member.name.eq(userName) : null;
     }
@@ -0,0 +1,154 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.repository.support.DeferredJoin;
+
+import java.util.List;
+
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * Querydsl SQL 로 JDBC 에서 바로 조회하는 MemberRepositoryCustom 구현
+ * <p>
+ * JPQL 파싱 / 변환과 영속성 컨텍스트를 거치지 않는 읽기 전용 경로이다.
+ * {@code querydsl.search.engine=sql} 일 때만 등록된다.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "querydsl.search.engine", havingValue = "sql")
+public class MemberSqlRepository implements MemberRepositoryCustom {
+
+    private final SQLQueryFactory sqlQueryFactory;
+    private final MemberCountEstimator countEstimator;
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return selectMemberTeamDto(condition)
+                .fetch();
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = selectMemberTeamDto(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery(condition).fetchOne());
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageEstimated(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = selectMemberTeamDto(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        return countEstimator.toPage(content, pageable, condition, () -> countQuery(condition).fetchOne());
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchPageDeferred(MemberSearchCondition condition, Pageable pageable) {
+        SQLQuery<Long> idQuery = sqlQueryFactory
+                .select(member.memberId)
+                .from(member);
+        if (StringUtils.hasLength(condition.getTeamName())) {
+            idQuery.join(team).on(member.teamId.eq(team.teamId));
+        }
+        List<Long> ids = idQuery
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()))
+                .orderBy(member.memberId.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        List<MemberTeamDto> content = ids.isEmpty() ? List.of() : DeferredJoin.inIdOrder(ids, sqlQueryFactory
+                .select(new QMemberTeamDto(
+                        member.memberId,
+                        member.name,
+                        member.age,
+                        team.teamId,
+                        team.name))
+                .from(member)
+                .leftJoin(team).on(member.teamId.eq(team.teamId))
+                .where(member.memberId.in(ids))
+                .fetch(), MemberTeamDto::getMemberId);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery(condition).fetchOne());
+    }
+
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = selectMemberTeamDto(condition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private SQLQuery<MemberTeamDto> selectMemberTeamDto(MemberSearchCondition condition) {
+        return sqlQueryFactory
+                .select(new QMemberTeamDto(
+                        member.memberId,
+                        member.name,
+                        member.age,
+                        team.teamId,
+                        team.name))
+                .from(member)
+                .leftJoin(team).on(member.teamId.eq(team.teamId))
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()));
+    }
+
+    private SQLQuery<Long> countQuery(MemberSearchCondition condition) {
+        return sqlQueryFactory
+                .select(member.memberId.count())
+                .from(member)
+                .leftJoin(team).on(member.teamId.eq(team.teamId))
+                .where(memberNameEq(condition.getUserName()),
+                        teamNameEq(condition.getTeamName()),
+                        memberAgeGoe(condition.getAgeGoe()),
+                        memberAgeLoe(condition.getAgeLoe()));
+    }
+
+    private BooleanExpression memberNameEq(String userName) {
+        return StringUtils.hasLength(userName) ? member.name.eq(userName) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return StringUtils.hasLength(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression memberAgeGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression memberAgeLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
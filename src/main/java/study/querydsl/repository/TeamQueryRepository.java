@@ -0,0 +1,101 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamMemberDto;
+import study.querydsl.dto.TeamMembersDto;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀 목록 + 소속 회원 조회
+ * <p>
+ * Team.members 를 fetch join 하면 팀 x 회원 만큼 row 가 늘어나 팀 단위 페이징이 깨지고,
+ * 지연 로딩은 팀마다 쿼리가 나간다. 여기서는 팀 페이지를 먼저 구한 뒤 그 팀들의 회원을
+ * row_number() 윈도 쿼리 하나로 팀당 memberLimit 명까지만 가져오므로,
+ * 페이지 크기와 상관없이 쿼리는 팀 / 회원 / (필요 시) count 3개로 고정된다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamQueryRepository {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public Page<TeamMembersDto> findTeamsWithMembers(Pageable pageable, int memberLimit) {
+        List<Tuple> teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        List<Long> teamIds = teams.stream().map(row -> row.get(team.id)).toList();
+        Map<Long, List<TeamMemberDto>> membersByTeam = teamIds.isEmpty()
+                ? Map.of()
+                : findMembers(teamIds, memberLimit + 1);
+
+        List<TeamMembersDto> content = new ArrayList<>(teams.size());
+        for (Tuple row : teams) {
+            List<TeamMemberDto> members = membersByTeam.getOrDefault(row.get(team.id), List.of());
+            boolean hasMoreMembers = members.size() > memberLimit;
+            content.add(new TeamMembersDto(row.get(team.id), row.get(team.name),
+                    hasMoreMembers ? members.subList(0, memberLimit) : members, hasMoreMembers));
+        }
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(team.count())
+                .from(team);
+
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    /**
+     * 팀 id 목록을 배열 파라미터 하나로 넘겨 팀마다 id 순 limit 명까지 조회
+     * <p>
+     * JDBC 로 직접 실행해 auto flush 가 일어나지 않으므로 먼저 flush 한다.
+     */
+    private Map<Long, List<TeamMemberDto>> findMembers(List<Long> teamIds, int limit) {
+        String sql = "select team_id, member_id, name, age from (" +
+                " select m.team_id, m.member_id, m.name, m.age," +
+                " row_number() over (partition by m.team_id order by m.member_id) as ranking" +
+                " from unnest(cast(? as bigint array)) as k(key_value)" +
+                " join member m on m.team_id = k.key_value) ranked" +
+                " where ranking <= ?" +
+                " order by team_id, ranking";
+
+        em.flush();
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setArray(1, connection.createArrayOf("bigint", teamIds.toArray()));
+                statement.setInt(2, limit);
+                Map<Long, List<TeamMemberDto>> results = new HashMap<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        results.computeIfAbsent(resultSet.getLong(1), key -> new ArrayList<>())
+                                .add(new TeamMemberDto(resultSet.getLong(2), resultSet.getString(3), resultSet.getInt(4)));
+                    }
+                }
+                return results;
+            }
+        });
+    }
+}
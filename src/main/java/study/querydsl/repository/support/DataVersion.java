@@ -0,0 +1,52 @@
+package study.querydsl.repository.support;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Member / Team 데이터 변경 시 증가하는 전역 버전
+ * <p>
+ * 트랜잭션 안에서 변경되면 커밋(또는 롤백) 이후에 한 번만 증가시켜,
+ * 커밋 전 데이터를 새 버전으로 응답하는 일이 없도록 한다.
+ * <p>
+ * 카운터는 JVM 마다 0 부터 시작하므로 ETag 에는 기동할 때 정한 임의의 epoch 를 붙인다.
+ * 재기동, 여러 인스턴스, 스냅샷 복원 뒤에 이전 ETag 가 우연히 같은 값으로 304 를 받는 일이 없다.
+ */
+@Component
+public class DataVersion {
+
+    private static final Object TX_KEY = new Object();
+
+    private final AtomicLong version = new AtomicLong();
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+
+    public long current() {
+        return version.get();
+    }
+
+    public String etag() {
+        return "\"members-" + epoch + "-" + current() + "\"";
+    }
+
+    public void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(TX_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(TX_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TX_KEY);
+                version.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package study.querydsl.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate 가 실행하는 member / team 변경 SQL(엔티티 flush, 벌크 execute() 모두)을 감지해 {@link DataVersion} 을 올린다.
+ */
+@RequiredArgsConstructor
+public class DataVersionStatementInspector implements StatementInspector {
+
+    private static final Pattern WRITE_STATEMENT = Pattern.compile(
+            "^(?:\\s*/\\*.*?\\*/)*\\s*(?:insert\\s+into|update|delete\\s+from)\\s+(?:\\w+\\.)?(?:member|team)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final DataVersion dataVersion;
+
+    @Override
+    public String inspect(String sql) {
+        if (WRITE_STATEMENT.matcher(sql).find()) {
+            dataVersion.markChanged();
+        }
+        return sql;
+    }
+}
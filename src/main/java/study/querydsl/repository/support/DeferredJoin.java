@@ -0,0 +1,32 @@
+package study.querydsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * deferred join 페이징 보조
+ * <p>
+ * 1) 인덱스만으로 처리되는 id 쿼리에 offset / limit 을 적용하고
+ * 2) 그 id 들에 대해서만 join 한 전체 컬럼을 가져온 뒤
+ * 3) IN 절 결과에는 순서가 없으므로 1) 의 id 순서로 다시 정렬한다.
+ */
+public abstract class DeferredJoin {
+
+    public static <ID, T> List<T> inIdOrder(List<ID> ids, List<T> rows, Function<T, ID> idOf) {
+        Map<ID, T> rowsById = new HashMap<>();
+        for (T row : rows) {
+            rowsById.put(idOf.apply(row), row);
+        }
+        List<T> results = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T row = rowsById.get(id);
+            if (row != null) {
+                results.add(row);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,32 @@
+package study.querydsl.repository.support;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 전체 건수가 추정치일 수 있는 Page
+ * <p>
+ * {@code estimated} 가 true 이면 totalElements 는 히스토그램 기반 추정치이며,
+ * 실제 값과의 차이는 스냅샷 이후 변경분을 제외하면 {@code totalError} 이하이다.
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    private final boolean estimated;
+    private final long totalError;
+
+    public EstimatedPage(List<T> content, Pageable pageable, long total, boolean estimated, long totalError) {
+        super(content, pageable, total);
+        this.estimated = estimated;
+        this.totalError = totalError;
+    }
+
+    public boolean isEstimated() {
+        return estimated;
+    }
+
+    public long getTotalError() {
+        return totalError;
+    }
+}
@@ -0,0 +1,27 @@
+package study.querydsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 큰 키 목록을 IN 절 chunk 로 나눈다.
+ * <p>
+ * hibernate.query.in_clause_parameter_padding 은 파라미터 수를 다음 2의 거듭제곱으로 패딩한다.
+ * chunk 크기를 2의 거듭제곱으로 두면 꽉 찬 chunk 는 모두 같은 statement 를 쓰고,
+ * 마지막 chunk 만 그보다 작은 2의 거듭제곱 형태 중 하나가 된다.
+ */
+public abstract class InQueryChunks {
+
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    public static <T> List<List<T>> split(Collection<T> keys, int chunkSize) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+}
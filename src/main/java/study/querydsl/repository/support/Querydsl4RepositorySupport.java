@@ -10,6 +10,8 @@ import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
@@ -17,8 +19,10 @@ import org.springframework.data.querydsl.SimpleEntityPathResolver;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
+import study.querydsl.outbox.ChangeTrackingQueryFactory;
 
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
@@ -45,7 +49,7 @@ public abstract class Querydsl4RepositorySupport<T> {
         EntityPath<T> path = resolver.createPath(entityInformation.getJavaType());
         this.entityManager = entityManager;
         this.querydsl = new Querydsl(entityManager, new PathBuilder<>(path.getType(), path.getMetadata()));
-        this.queryFactory = new JPAQueryFactory(entityManager);
+        this.queryFactory = new ChangeTrackingQueryFactory(entityManager);
     }
     @PostConstruct
     public void validate() {
@@ -79,4 +83,27 @@ public abstract class Querydsl4RepositorySupport<T> {
         JPAQuery<Long> countResult = countQuery.apply(getQueryFactory());
         return PageableExecutionUtils.getPage(content, pageable, countResult::fetchOne);
     }
+    protected Slice<T> applySlice(Pageable pageable, Function<JPAQueryFactory, JPAQuery<T>> contentQuery) {
+        JPAQuery<T> jpaQuery = contentQuery.apply(getQueryFactory());
+        List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery)
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+    protected <ID> Page<T> applyDeferredPagination(Pageable pageable,
+                                                   Function<JPAQueryFactory, JPAQuery<ID>> idQuery,
+                                                   BiFunction<JPAQueryFactory, List<ID>, JPAQuery<T>> contentQuery,
+                                                   Function<T, ID> idOf,
+                                                   Function<JPAQueryFactory, JPAQuery<Long>> countQuery) {
+        List<ID> ids = getQuerydsl().applyPagination(pageable, idQuery.apply(getQueryFactory())).fetch();
+        List<T> content = ids.isEmpty()
+                ? List.of()
+                : DeferredJoin.inIdOrder(ids, contentQuery.apply(getQueryFactory(), ids).fetch(), idOf);
+        JPAQuery<Long> countResult = countQuery.apply(getQueryFactory());
+        return PageableExecutionUtils.getPage(content, pageable, countResult::fetchOne);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package study.querydsl.repository.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 호출을 하나의 실행으로 합친다.
+ * <p>
+ * 처음 들어온 호출만 loader 를 실행하고, 실행 중에 들어온 호출은 그 결과(또는 예외)를 같이 받는다.
+ * 실행이 끝나면 키를 바로 지우므로 결과를 캐시하지 않으며, 맵에는 실행 중인 키만 남는다.
+ * 실행 중인 키가 maxInFlight 를 넘으면 합치지 않고 각자 실행한다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    public SingleFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> running = inFlight.get(key);
+        if (running != null) {
+            return await(running);
+        }
+        if (inFlight.size() >= maxInFlight) {
+            executions.incrementAndGet();
+            return loader.get();
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+
+        executions.incrementAndGet();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * loader 를 실제로 실행한 횟수
+     */
+    public long executions() {
+        return executions.get();
+    }
+
+    /**
+     * 다른 호출의 결과를 받아 간 횟수
+     */
+    public long shared() {
+        return shared.get();
+    }
+
+    private V await(CompletableFuture<V> running) {
+        shared.incrementAndGet();
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package study.querydsl.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.support.InQueryChunks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 여러 개의 id / 이름을 한 번에 조회한다.
+ * <ul>
+ *     <li>chunk-size 단위 IN 절로 나누고, chunk 가 여러 개면 병렬로 실행</li>
+ *     <li>키가 join-threshold 를 넘으면 IN 절 대신 배열 파라미터를 unnest 한 테이블과 join</li>
+ * </ul>
+ * 호출자의 트랜잭션 안에서는 아직 커밋되지 않은 변경이 보이도록 병렬 실행하지 않는다.
+ */
+@Service
+public class MemberBatchLookupService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final int chunkSize;
+    private final int joinThreshold;
+    private final ExecutorService executor;
+
+    public MemberBatchLookupService(MemberJpaRepository memberJpaRepository,
+                                    @Value("${querydsl.batch-lookup.chunk-size:512}") int chunkSize,
+                                    @Value("${querydsl.batch-lookup.join-threshold:20000}") int joinThreshold,
+                                    @Value("${querydsl.batch-lookup.parallelism:4}") int parallelism) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.chunkSize = chunkSize;
+        this.joinThreshold = joinThreshold;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "member-batch-lookup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Map<Long, MemberTeamDto> findByIds(Collection<Long> ids) {
+        List<Long> keys = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<MemberTeamDto> rows = keys.size() > joinThreshold
+                ? memberJpaRepository.searchByIdsJoin(keys)
+                : fetchChunks(keys, memberJpaRepository::searchByIds);
+
+        Map<Long, MemberTeamDto> rowsById = new LinkedHashMap<>();
+        for (MemberTeamDto row : rows) {
+            rowsById.put(row.getMemberId(), row);
+        }
+        Map<Long, MemberTeamDto> results = new LinkedHashMap<>();
+        for (Long key : keys) {
+            MemberTeamDto row = rowsById.get(key);
+            if (row != null) {
+                results.put(key, row);
+            }
+        }
+        return results;
+    }
+
+    public Map<String, List<MemberTeamDto>> findByNames(Collection<String> names) {
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(names));
+        List<MemberTeamDto> rows = keys.size() > joinThreshold
+                ? memberJpaRepository.searchByNamesJoin(keys)
+                : fetchChunks(keys, memberJpaRepository::searchByNames);
+
+        Map<String, List<MemberTeamDto>> rowsByName = new LinkedHashMap<>();
+        for (MemberTeamDto row : rows) {
+            rowsByName.computeIfAbsent(row.getUserName(), key -> new ArrayList<>()).add(row);
+        }
+        Map<String, List<MemberTeamDto>> results = new LinkedHashMap<>();
+        for (String key : keys) {
+            List<MemberTeamDto> group = rowsByName.get(key);
+            if (group != null) {
+                results.put(key, group);
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <K> List<MemberTeamDto> fetchChunks(List<K> keys, Function<List<K>, List<MemberTeamDto>> query) {
+        List<List<K>> chunks = InQueryChunks.split(keys, chunkSize);
+        List<MemberTeamDto> results = new ArrayList<>();
+        if (chunks.size() <= 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            for (List<K> chunk : chunks) {
+                results.addAll(query.apply(chunk));
+            }
+            return results;
+        }
+
+        List<CompletableFuture<List<MemberTeamDto>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> query.apply(chunk), executor))
+                .toList();
+        for (CompletableFuture<List<MemberTeamDto>> future : futures) {
+            results.addAll(future.join());
+        }
+        return results;
+    }
+}
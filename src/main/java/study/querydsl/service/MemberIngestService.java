@@ -0,0 +1,182 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberIngestRequest;
+import study.querydsl.dto.MemberIngestResult;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 대량 입력
+ * <ul>
+ *     <li>chunk-size 건씩 읽어 chunk 마다 트랜잭션 하나로 저장하고 flush / clear 한다.
+ *     hibernate.jdbc.batch_size / order_inserts 로 insert 가 JDBC batch 로 묶인다.</li>
+ *     <li>팀은 chunk 안의 팀 이름을 IN 쿼리 한 번으로 찾고, 없는 팀만 새로 만든다.</li>
+ *     <li>NDJSON 만 요청 본문에서 한 줄씩 읽으므로 저장 속도보다 빨리 읽지 않는다. JSON 배열은 컨트롤러에서
+ *     전체를 List 로 역직렬화한 뒤에 들어오므로 본문 전체가 메모리에 올라간다.
+ *     동시에 max-concurrent 개를 넘는 입력은 기다리지 않고 거절한다.</li>
+ *     <li>chunk 마다 커밋하므로 중간에 실패하면 앞의 chunk 는 남는다.
+ *     {@link IngestFailedException} 에 커밋된 건수가 담겨 있어 그 다음부터 다시 보내면 된다.</li>
+ * </ul>
+ */
+@Service
+public class MemberIngestService {
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final Semaphore permits;
+
+    public MemberIngestService(EntityManager em, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                               @Value("${querydsl.ingest.chunk-size:1000}") int chunkSize,
+                               @Value("${querydsl.ingest.max-concurrent:2}") int maxConcurrent) {
+        this.em = em;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * 이미 전부 메모리에 올라온 목록. 큰 입력은 {@link #ingestNdjson} 으로
+     */
+    public MemberIngestResult ingest(List<MemberIngestRequest> rows) {
+        return ingest(rows.iterator());
+    }
+
+    /**
+     * 한 줄에 회원 하나인 NDJSON
+     */
+    public MemberIngestResult ingestNdjson(InputStream input) throws IOException {
+        try (MappingIterator<MemberIngestRequest> rows = objectMapper
+                .readerFor(MemberIngestRequest.class)
+                .readValues(input)) {
+            return ingest(rows);
+        }
+    }
+
+    private MemberIngestResult ingest(Iterator<MemberIngestRequest> rows) {
+        if (!permits.tryAcquire()) {
+            throw new IngestBusyException();
+        }
+        long start = System.nanoTime();
+        long total = 0;
+        try {
+            List<Long> batchNanos = new ArrayList<>();
+            List<MemberIngestRequest> chunk = new ArrayList<>(chunkSize);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == chunkSize || !rows.hasNext()) {
+                    long batchStart = System.nanoTime();
+                    saveChunk(chunk);
+                    batchNanos.add(System.nanoTime() - batchStart);
+                    total += chunk.size();
+                    chunk.clear();
+                }
+            }
+            return result(total, batchNanos, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            throw new IngestFailedException(total, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void saveChunk(List<MemberIngestRequest> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Team> teams = resolveTeams(chunk);
+            for (MemberIngestRequest row : chunk) {
+                Team team = StringUtils.hasLength(row.getTeamName()) ? teams.get(row.getTeamName()) : null;
+                em.persist(new Member(row.getUserName(), row.getAge(), team));
+            }
+            em.flush();
+            em.clear();
+        });
+    }
+
+    /**
+     * chunk 에 나온 팀 이름 -> Team. 이름이 같은 팀이 여럿이면 먼저 만들어진 팀
+     */
+    private Map<String, Team> resolveTeams(List<MemberIngestRequest> chunk) {
+        Set<String> names = new LinkedHashSet<>();
+        for (MemberIngestRequest row : chunk) {
+            if (StringUtils.hasLength(row.getTeamName())) {
+                names.add(row.getTeamName());
+            }
+        }
+        Map<String, Team> teams = new HashMap<>();
+        if (names.isEmpty()) {
+            return teams;
+        }
+        List<Team> existing = em.createQuery("select t from Team t where t.name in :names order by t.id", Team.class)
+                .setParameter("names", names)
+                .getResultList();
+        for (Team team : existing) {
+            teams.putIfAbsent(team.getName(), team);
+        }
+        for (String name : names) {
+            teams.computeIfAbsent(name, key -> {
+                Team team = new Team(key);
+                em.persist(team);
+                return team;
+            });
+        }
+        return teams;
+    }
+
+    private MemberIngestResult result(long rows, List<Long> batchNanos, long elapsedNanos) {
+        long[] sorted = batchNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        long p99 = sorted.length == 0 ? 0 : sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+        long max = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        return new MemberIngestResult(rows, sorted.length, elapsedMs,
+                elapsedNanos == 0 ? 0 : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos,
+                TimeUnit.NANOSECONDS.toMillis(p99), TimeUnit.NANOSECONDS.toMillis(max));
+    }
+
+    /**
+     * 동시에 진행 중인 대량 입력이 max-concurrent 개를 넘음
+     */
+    public static class IngestBusyException extends RuntimeException {
+
+        public IngestBusyException() {
+            super("다른 대량 입력이 진행 중입니다. 잠시 후 다시 시도해 주세요.");
+        }
+    }
+
+    /**
+     * 입력 도중 실패. 앞에서부터 committedRows 건은 이미 커밋됐다.
+     */
+    public static class IngestFailedException extends RuntimeException {
+
+        private final long committedRows;
+
+        public IngestFailedException(long committedRows, Throwable cause) {
+            super(committedRows + " 건을 저장한 뒤 실패했습니다: " + cause.getMessage(), cause);
+            this.committedRows = committedRows;
+        }
+
+        public long getCommittedRows() {
+            return committedRows;
+        }
+    }
+}
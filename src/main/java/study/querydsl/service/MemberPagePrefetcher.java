@@ -0,0 +1,183 @@
+package study.querydsl.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.support.DataVersion;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * 같은 클라이언트가 같은 조건으로 페이지를 순서대로 넘기면(N-1 다음 N) 응답 후 N+1 페이지를 미리 읽어 둔다.
+ * <p>
+ * 미리 읽은 페이지는 capacity 개까지, ttl 동안만 보관하며 읽은 시점의 데이터 버전이 바뀌면 버린다.
+ * querydsl.prefetch.enabled=true 일 때만 동작한다.
+ */
+@Service
+public class MemberPagePrefetcher {
+
+    private final DataVersion dataVersion;
+    private final boolean enabled;
+    private final int capacity;
+    private final long ttlNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final LinkedHashMap<StreamKey, Integer> lastPages;
+    private final LinkedHashMap<PageKey, Prefetched> buffer;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong wasted = new AtomicLong();
+
+    public MemberPagePrefetcher(DataVersion dataVersion,
+                                @Value("${querydsl.prefetch.enabled:false}") boolean enabled,
+                                @Value("${querydsl.prefetch.capacity:100}") int capacity,
+                                @Value("${querydsl.prefetch.ttl-ms:10000}") long ttlMs,
+                                @Value("${querydsl.prefetch.threads:2}") int threads) {
+        this.dataVersion = dataVersion;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), runnable -> {
+                    Thread thread = new Thread(runnable, "member-page-prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.lastPages = new LinkedHashMap<>(16, 0.75f, true);
+        this.buffer = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * 미리 읽어 둔 페이지가 있으면 돌려주고, 없으면 loader 로 읽는다.
+     * 순차 접근이면 다음 페이지를 백그라운드에서 읽어 둔다.
+     */
+    public Page<MemberTeamDto> fetch(String clientId, String mode, MemberSearchCondition condition, Pageable pageable,
+                                     BiFunction<MemberSearchCondition, Pageable, Page<MemberTeamDto>> loader) {
+        if (!enabled || !StringUtils.hasLength(clientId) || pageable.isUnpaged()) {
+            return loader.apply(condition, pageable);
+        }
+        StreamKey stream = new StreamKey(clientId, mode,
+                condition.getUserName(), condition.getTeamName(), condition.getAgeGoe(), condition.getAgeLoe(),
+                pageable.getPageSize(), pageable.getSort().toString());
+        int pageNumber = pageable.getPageNumber();
+
+        Page<MemberTeamDto> page = takePrefetched(new PageKey(stream, pageNumber));
+        if (page == null) {
+            misses.incrementAndGet();
+            page = loader.apply(condition, pageable);
+        } else {
+            hits.incrementAndGet();
+        }
+
+        if (isSequential(stream, pageNumber) && page.hasNext()) {
+            prefetch(new PageKey(stream, pageNumber + 1), condition, pageable.next(), loader);
+        }
+        return page;
+    }
+
+    public Metrics metrics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (this) {
+            return new Metrics(hitCount, missCount,
+                    hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount),
+                    prefetches.get(), wasted.get(), buffer.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Page<MemberTeamDto> takePrefetched(PageKey key) {
+        Prefetched prefetched;
+        synchronized (this) {
+            prefetched = buffer.remove(key);
+        }
+        if (prefetched == null) {
+            return null;
+        }
+        if (System.nanoTime() - prefetched.createdAt() > ttlNanos || prefetched.version() != dataVersion.current()) {
+            wasted.incrementAndGet();
+            return null;
+        }
+        try {
+            return prefetched.page().join();
+        } catch (CompletionException e) {
+            // 미리 읽기에 실패했으면 요청 스레드에서 다시 읽는다
+            wasted.incrementAndGet();
+            return null;
+        }
+    }
+
+    private synchronized boolean isSequential(StreamKey stream, int pageNumber) {
+        Integer lastPage = lastPages.put(stream, pageNumber);
+        if (lastPages.size() > capacity) {
+            Iterator<StreamKey> eldest = lastPages.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return lastPage != null && lastPage == pageNumber - 1;
+    }
+
+    private void prefetch(PageKey key, MemberSearchCondition condition, Pageable pageable,
+                          BiFunction<MemberSearchCondition, Pageable, Page<MemberTeamDto>> loader) {
+        long version = dataVersion.current();
+        CompletableFuture<Page<MemberTeamDto>> page;
+        try {
+            page = CompletableFuture.supplyAsync(() -> loader.apply(condition, pageable), executor);
+        } catch (RejectedExecutionException e) {
+            // 미리 읽기 작업이 밀려 있으면 건너뛴다
+            return;
+        }
+        prefetches.incrementAndGet();
+
+        synchronized (this) {
+            if (buffer.put(key, new Prefetched(page, version, System.nanoTime())) != null) {
+                wasted.incrementAndGet();
+            }
+            long now = System.nanoTime();
+            for (Iterator<Prefetched> iterator = buffer.values().iterator(); iterator.hasNext(); ) {
+                Prefetched prefetched = iterator.next();
+                if (buffer.size() > capacity || now - prefetched.createdAt() > ttlNanos) {
+                    iterator.remove();
+                    wasted.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private record StreamKey(String clientId, String mode, String userName, String teamName,
+                             Integer ageGoe, Integer ageLoe, int size, String sort) {
+    }
+
+    private record PageKey(StreamKey stream, int page) {
+    }
+
+    private record Prefetched(CompletableFuture<Page<MemberTeamDto>> page, long version, long createdAt) {
+    }
+
+    /**
+     * @param wasted 쓰이지 않고 버려진(만료 / 밀려남 / 데이터 변경 / 실패) 미리 읽기 수
+     */
+    public record Metrics(long hits, long misses, double hitRate, long prefetches, long wasted, int buffered) {
+    }
+}
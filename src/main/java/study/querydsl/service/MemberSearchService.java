@@ -0,0 +1,112 @@
+package study.querydsl.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberRepositoryCustom;
+import study.querydsl.repository.MemberSqlRepository;
+import study.querydsl.repository.support.DataVersion;
+import study.querydsl.repository.support.SingleFlight;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 회원 검색
+ * <p>
+ * 같은 조건 / 페이지로 동시에 들어온 검색은 DB 조회 한 번으로 합친다({@link SingleFlight}).
+ * 키에 데이터 버전을 넣어 변경 이후에 들어온 요청이 변경 전에 시작된 조회 결과를 받지 않게 하고,
+ * 트랜잭션 안의 호출은 커밋되지 않은 데이터가 섞일 수 있으므로 합치지 않는다.
+ */
+@Service
+public class MemberSearchService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+    private final ObjectProvider<MemberSqlRepository> memberSqlRepository;
+    private final DataVersion dataVersion;
+    private final SingleFlight<SearchKey, Object> singleFlight;
+
+    public MemberSearchService(MemberJpaRepository memberJpaRepository,
+                               MemberRepository memberRepository,
+                               ObjectProvider<MemberSqlRepository> memberSqlRepository,
+                               DataVersion dataVersion,
+                               @Value("${querydsl.single-flight.max-in-flight:1000}") int maxInFlight) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.memberRepository = memberRepository;
+        this.memberSqlRepository = memberSqlRepository;
+        this.dataVersion = dataVersion;
+        this.singleFlight = new SingleFlight<>(maxInFlight);
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return coalesce("search", condition, Pageable.unpaged(), () -> {
+            MemberSqlRepository sqlRepository = memberSqlRepository.getIfAvailable();
+            return sqlRepository != null ? sqlRepository.search(condition) : memberJpaRepository.search(condition);
+        });
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        return coalesce("page", condition, pageable, () -> searchRepository().searchPage(condition, pageable));
+    }
+
+    public Page<MemberTeamDto> searchPageEstimated(MemberSearchCondition condition, Pageable pageable) {
+        return coalesce("estimated", condition, pageable,
+                () -> searchRepository().searchPageEstimated(condition, pageable));
+    }
+
+    public Page<MemberTeamDto> searchPageDeferred(MemberSearchCondition condition, Pageable pageable) {
+        return coalesce("deferred", condition, pageable,
+                () -> searchRepository().searchPageDeferred(condition, pageable));
+    }
+
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        return coalesce("slice", condition, pageable, () -> searchRepository().searchSlice(condition, pageable));
+    }
+
+    public SingleFlight<SearchKey, Object> singleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * querydsl.search.engine=sql 이면 Querydsl SQL 구현, 아니면 JPA 구현
+     */
+    private MemberRepositoryCustom searchRepository() {
+        return memberSqlRepository.getIfAvailable(() -> memberRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String kind, MemberSearchCondition condition, Pageable pageable, Supplier<T> query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+        SearchKey key = new SearchKey(kind,
+                normalize(condition.getUserName()), normalize(condition.getTeamName()),
+                condition.getAgeGoe(), condition.getAgeLoe(),
+                pageable.isPaged() ? pageable.getOffset() : -1,
+                pageable.isPaged() ? pageable.getPageSize() : -1,
+                pageable.getSort().toString(),
+                dataVersion.current());
+        return (T) singleFlight.execute(key, query::get);
+    }
+
+    /**
+     * 검색 조건에서 빈 문자열은 조건 없음(null)과 같으므로 같은 키로 본다
+     */
+    private static String normalize(String value) {
+        return StringUtils.hasLength(value) ? value : null;
+    }
+
+    public record SearchKey(String kind, String userName, String teamName, Integer ageGoe, Integer ageLoe,
+                            long offset, int size, String sort, long version) {
+    }
+}
@@ -0,0 +1,116 @@
+package study.querydsl.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 준비된 DB(스키마, 인덱스, 데이터)를 H2 SCRIPT 로 파일에 떠 두고, 다음 기동 때 RUNSCRIPT 로 복원한다.
+ * <p>
+ * 스냅샷 옆에 SHA-256 체크섬 파일을 두고 복원 전에 검증한다. 검증에 실패하면 복원하지 않는다.
+ * H2 가 TCP 서버 모드면 파일 경로는 DB 서버 기준이다.
+ */
+@Slf4j
+@Component
+public class DatabaseSnapshot {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String snapshotPath;
+
+    public DatabaseSnapshot(JdbcTemplate jdbcTemplate, @Value("${querydsl.snapshot.path:}") String snapshotPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotPath = snapshotPath;
+    }
+
+    public boolean isEnabled() {
+        return StringUtils.hasText(snapshotPath);
+    }
+
+    /**
+     * 설정된 스냅샷이 있고 체크섬이 맞으면 복원한다.
+     */
+    public boolean restoreIfPresent() {
+        if (!isEnabled()) {
+            return false;
+        }
+        Path path = Path.of(snapshotPath).toAbsolutePath();
+        if (!Files.exists(path)) {
+            log.info("no database snapshot at {}", path);
+            return false;
+        }
+        return restore(path);
+    }
+
+    public void exportIfEnabled() {
+        if (isEnabled()) {
+            export(Path.of(snapshotPath).toAbsolutePath());
+        }
+    }
+
+    public void export(Path path) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(path.getParent());
+            Files.deleteIfExists(checksumPath(path));
+            jdbcTemplate.execute("SCRIPT TO " + literal(path) + " COMPRESSION GZIP");
+            Files.writeString(checksumPath(path), checksum(path), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("database snapshot exported to {} in {}ms", path, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean restore(Path path) {
+        long start = System.nanoTime();
+        try {
+            Path checksumPath = checksumPath(path);
+            if (!Files.exists(checksumPath)
+                    || !Files.readString(checksumPath, StandardCharsets.US_ASCII).trim().equals(checksum(path))) {
+                log.warn("database snapshot checksum mismatch, ignoring {}", path);
+                return false;
+            }
+        } catch (IOException e) {
+            log.warn("cannot read database snapshot {}", path, e);
+            return false;
+        }
+
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("RUNSCRIPT FROM " + literal(path) + " COMPRESSION GZIP");
+        log.info("database snapshot restored from {} in {}ms", path, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    static String checksum(Path path) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path checksumPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".sha256");
+    }
+
+    private static String literal(Path path) {
+        return "'" + path.toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.startup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class StartupReportController {
+
+    private final StartupReporter startupReporter;
+
+    @GetMapping("/diagnostics/startup")
+    public Map<String, Long> startup() {
+        return startupReporter.getBreakdown();
+    }
+}
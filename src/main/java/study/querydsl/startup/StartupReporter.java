@@ -0,0 +1,83 @@
+package study.querydsl.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 기동이 끝나면 단계별 소요 시간(JVM -> main, context refresh, JPA bootstrap, 데이터 초기화)을 기록한다.
+ * <p>
+ * {@code querydsl.startup.exit-on-ready=true} 이면 기동 직후 종료한다. (AppCDS 아카이브 학습 실행용)
+ */
+@Slf4j
+@Component
+public class StartupReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final boolean exitOnReady;
+    private volatile Map<String, Long> breakdown = Map.of();
+
+    public StartupReporter(@Value("${querydsl.startup.exit-on-ready:false}") boolean exitOnReady) {
+        this.exitOnReady = exitOnReady;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        breakdown = measure(context.getApplicationStartup());
+        log.info("startup breakdown (ms): {}", breakdown);
+
+        if (exitOnReady) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    public Map<String, Long> getBreakdown() {
+        return breakdown;
+    }
+
+    private Map<String, Long> measure(ApplicationStartup applicationStartup) {
+        Map<String, Long> results = new LinkedHashMap<>();
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        if (applicationStartup instanceof BufferingApplicationStartup buffering) {
+            StartupTimeline timeline = buffering.getBufferedTimeline();
+            results.put("jvmToMain", timeline.getStartTime().toEpochMilli() - jvmStart);
+            results.put("contextRefresh", duration(timeline, "spring.context.refresh", null));
+            results.put("jpaBootstrap", duration(timeline, "spring.beans.instantiate", "entityManagerFactory"));
+            results.put("seeding", duration(timeline, "spring.beans.instantiate", "initMember"));
+        }
+        results.put("total", ManagementFactory.getRuntimeMXBean().getUptime());
+        return results;
+    }
+
+    private long duration(StartupTimeline timeline, String stepName, String beanName) {
+        return timeline.getEvents().stream()
+                .filter(event -> event.getStartupStep().getName().equals(stepName))
+                .filter(event -> beanName == null || hasBeanName(event.getStartupStep(), beanName))
+                .map(StartupTimeline.TimelineEvent::getDuration)
+                .reduce(Duration.ZERO, Duration::plus)
+                .toMillis();
+    }
+
+    private boolean hasBeanName(StartupStep step, String beanName) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName") && tag.getValue().equals(beanName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package study.querydsl.web;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔드포인트 하나의 동시 실행 한도를 AIMD 로 조정한다.
+ * <p>
+ * 응답이 latency 목표 이하로 끝나면 한도를 1/limit 씩 늘리고(한도만큼 성공하면 +1),
+ * 목표를 넘기거나 실패하면 backoff 비율만큼 곱해서 줄인다.
+ * 한 번 과부하가 오면 그때 처리 중이던 요청들이 한꺼번에 느리게 끝나므로,
+ * 줄이는 것은 latency 목표 시간당 한 번까지만 한다.
+ * 한도를 넘는 요청은 기다리지 않고 바로 거절한다.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private long accepted;
+    private long rejected;
+    private long dropped;
+    private double averageLatencyNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    long latencyTargetMs, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("1 <= minLimit <= initialLimit <= maxLimit 이어야 합니다.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio 는 0 과 1 사이여야 합니다.");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.backoffRatio = backoffRatio;
+        this.lastDecreaseNanos = System.nanoTime() - latencyTargetNanos;
+    }
+
+    /**
+     * 한도 안이면 자리를 잡고 true, 아니면 false (거절)
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        accepted++;
+        return true;
+    }
+
+    /**
+     * tryAcquire 가 true 였던 요청이 끝나면 반드시 호출
+     */
+    public void release(long elapsedNanos, boolean failed) {
+        release(System.nanoTime(), elapsedNanos, failed);
+    }
+
+    synchronized void release(long nowNanos, long elapsedNanos, boolean failed) {
+        inFlight--;
+        averageLatencyNanos = averageLatencyNanos == 0 ? elapsedNanos : averageLatencyNanos * 0.9 + elapsedNanos * 0.1;
+
+        if (failed || elapsedNanos > latencyTargetNanos) {
+            if (nowNanos - lastDecreaseNanos >= latencyTargetNanos) {
+                dropped++;
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = nowNanos;
+            }
+        } else if ((inFlight + 1) * 2 >= limit) {
+            // 한도의 절반 이상을 쓰고 있을 때만 늘린다. 한가할 때 한도만 커지는 것을 막기 위함
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot((int) limit, inFlight, accepted, rejected, dropped,
+                TimeUnit.NANOSECONDS.toMillis((long) averageLatencyNanos));
+    }
+
+    public record Snapshot(int limit, int inFlight, long accepted, long rejected, long limitDrops,
+                           long averageLatencyMs) {
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class ConcurrencyLimitController {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @GetMapping("/diagnostics/concurrency-limits")
+    public Map<String, AdaptiveConcurrencyLimit.Snapshot> concurrencyLimits() {
+        return concurrencyLimitInterceptor.snapshots();
+    }
+}
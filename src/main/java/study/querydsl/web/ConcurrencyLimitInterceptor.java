@@ -0,0 +1,110 @@
+package study.querydsl.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원 검색 엔드포인트마다 {@link AdaptiveConcurrencyLimit} 를 두고, 한도를 넘는 요청은
+ * 커넥션 풀에서 기다리게 하지 않고 503 + Retry-After 로 바로 돌려보낸다.
+ * <p>
+ * 엔드포인트 경로 패턴별로 설정을 덮어쓸 수 있다.
+ * {@code querydsl.concurrency-limit.endpoints[/v2/members/slice].max=50} 처럼 initial / min / max /
+ * latency-target-ms / backoff-ratio 를 지정하고, 없는 항목은 전체 설정을 쓴다.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ACQUIRED = ConcurrencyLimitInterceptor.class.getName() + ".ACQUIRED";
+    private static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".STARTED_AT";
+
+    private static final String ENDPOINT_PREFIX = "querydsl.concurrency-limit.endpoints";
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetMs;
+    private final double backoffRatio;
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitInterceptor(Environment environment,
+                                       @Value("${querydsl.concurrency-limit.initial:20}") int initialLimit,
+                                       @Value("${querydsl.concurrency-limit.min:1}") int minLimit,
+                                       @Value("${querydsl.concurrency-limit.max:200}") int maxLimit,
+                                       @Value("${querydsl.concurrency-limit.latency-target-ms:500}") long latencyTargetMs,
+                                       @Value("${querydsl.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                       @Value("${querydsl.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.environment = environment;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetMs = latencyTargetMs;
+        this.backoffRatio = backoffRatio;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AdaptiveConcurrencyLimit limit = limitFor(endpoint(request));
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return false;
+        }
+        request.setAttribute(ACQUIRED, limit);
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(ACQUIRED) instanceof AdaptiveConcurrencyLimit limit)) {
+            return;
+        }
+        request.removeAttribute(ACQUIRED);
+        long elapsedNanos = System.nanoTime() - (long) request.getAttribute(STARTED_AT);
+        limit.release(elapsedNanos, ex != null || response.getStatus() >= 500);
+    }
+
+    /**
+     * 엔드포인트별 현재 한도 / 처리 중 / 누적 거절 수
+     */
+    public Map<String, AdaptiveConcurrencyLimit.Snapshot> snapshots() {
+        Map<String, AdaptiveConcurrencyLimit.Snapshot> snapshots = new TreeMap<>();
+        limits.forEach((endpoint, limit) -> snapshots.put(endpoint, limit.snapshot()));
+        return snapshots;
+    }
+
+    AdaptiveConcurrencyLimit limitFor(String endpoint) {
+        return limits.computeIfAbsent(endpoint, this::createLimit);
+    }
+
+    private AdaptiveConcurrencyLimit createLimit(String endpoint) {
+        String prefix = ENDPOINT_PREFIX + "[" + endpoint.substring(endpoint.indexOf(' ') + 1) + "].";
+        return new AdaptiveConcurrencyLimit(
+                environment.getProperty(prefix + "initial", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min", Integer.class, minLimit),
+                environment.getProperty(prefix + "max", Integer.class, maxLimit),
+                environment.getProperty(prefix + "latency-target-ms", Long.class, latencyTargetMs),
+                environment.getProperty(prefix + "backoff-ratio", Double.class, backoffRatio));
+    }
+
+    private String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,52 @@
+package study.querydsl.diagnostics;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+class IndexAdvisorTest {
+
+    @Autowired
+    IndexAdvisor indexAdvisor;
+
+    @Test
+    public void analyzeAllShapes() {
+        List<IndexAdvisor.ShapeReport> reports = indexAdvisor.analyze();
+
+        Assertions.assertThat(reports).hasSize(16 * IndexAdvisor.SORT_COLUMNS.size());
+        Assertions.assertThat(reports).allSatisfy(report ->
+                Assertions.assertThat(report.plan()).isNotBlank());
+    }
+
+    /**
+     * 조건이 없으면 full scan, 이름 조건은 idx_member_name 을 사용
+     */
+    @Test
+    public void reportFullScan() {
+        IndexAdvisor.ShapeReport noCondition = indexAdvisor.analyze(0, "");
+        IndexAdvisor.ShapeReport userName = indexAdvisor.analyze(1, "");
+
+        Assertions.assertThat(noCondition.memberFullScan()).isTrue();
+        Assertions.assertThat(noCondition.suggestions()).isEmpty();
+        Assertions.assertThat(userName.memberFullScan()).isFalse();
+        Assertions.assertThat(userName.plan().toLowerCase()).contains("idx_member_name");
+    }
+
+    /**
+     * Pageable sort 로 들어오는 정렬 컬럼도 order by 로 분석한다
+     */
+    @Test
+    public void analyzeSortedShape() {
+        IndexAdvisor.ShapeReport ageSorted = indexAdvisor.analyze(4, "m.age");
+
+        Assertions.assertThat(IndexAdvisor.SORT_COLUMNS).contains("m.name", "m.age");
+        Assertions.assertThat(ageSorted.sql()).endsWith("where m.age >= 10 order by m.age");
+        Assertions.assertThat(ageSorted.plan()).isNotBlank();
+    }
+}
@@ -0,0 +1,65 @@
+package study.querydsl.diagnostics;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.List;
+
+@SpringBootTest(properties = "querydsl.slow-query.threshold-ms=0")
+class SlowQueryRecorderTest {
+
+    @Autowired
+    SlowQueryRecorder slowQueryRecorder;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        slowQueryRecorder.clear();
+    }
+
+    @Test
+    public void recordSlowQueryWithPlan() throws InterruptedException {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        memberRepository.search(condition);
+
+        List<SlowQueryRecorder.SlowQuery> results = awaitRecorded();
+        SlowQueryRecorder.SlowQuery slowQuery = results.stream()
+                .filter(result -> result.origin().equals("MemberRepositoryImpl.search"))
+                .findFirst()
+                .orElseThrow();
+
+        Assertions.assertThat(slowQuery.sql()).containsIgnoringCase("from member");
+        Assertions.assertThat(slowQuery.parameters()).containsExactly("teamA");
+        Assertions.assertThat(slowQuery.plan()).isNotBlank().doesNotStartWith("explain failed");
+    }
+
+    @Test
+    public void recordBeforeExplainFinishes() {
+        memberRepository.search(new MemberSearchCondition());
+
+        // EXPLAIN 을 기다리지 않아도 기록은 이미 남아 있다
+        Assertions.assertThat(slowQueryRecorder.recent())
+                .anyMatch(result -> result.origin().equals("MemberRepositoryImpl.search"));
+    }
+
+    private List<SlowQueryRecorder.SlowQuery> awaitRecorded() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            List<SlowQueryRecorder.SlowQuery> results = slowQueryRecorder.recent();
+            if (results.stream().anyMatch(result -> result.origin().equals("MemberRepositoryImpl.search")
+                    && result.plan() != null)) {
+                return results;
+            }
+            Thread.sleep(100);
+        }
+        return slowQueryRecorder.recent();
+    }
+}
@@ -0,0 +1,94 @@
+package study.querydsl.entity;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 큰 영속성 컨텍스트의 flush / commit 시간 측정
+ * <p>
+ * ./gradlew test -Dbenchmark=true 와 ./gradlew test -Dbenchmark=true -PhibernateEnhance 결과를 비교한다.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EntityFlushBenchmarkTest {
+
+    static final int MEMBER_COUNT = 50_000;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            queryFactory.delete(member).execute();
+            queryFactory.delete(team).execute();
+        });
+    }
+
+    @Test
+    public void flushAndCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                em.persist(new Member("member" + i, i % 100, teamA));
+                if (i % 1_000 == 999) {
+                    em.flush();
+                    em.clear();
+                    teamA = em.merge(teamA);
+                }
+            }
+        });
+
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        Team teamB = new Team("teamB");
+        em.persist(teamB);
+        List<Member> members = queryFactory.selectFrom(member).fetch();
+
+        // 변경 없는 flush: 스냅샷 비교 vs dirty tracking
+        long start = System.nanoTime();
+        em.flush();
+        long cleanFlushMs = (System.nanoTime() - start) / 1_000_000;
+
+        for (int i = 0; i < members.size(); i += 10) {
+            members.get(i).changeTeam(teamB);
+        }
+        start = System.nanoTime();
+        em.flush();
+        long dirtyFlushMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        transactionManager.commit(status);
+        long commitMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("enhanced = " + (members.get(0) instanceof ManagedEntity)
+                + ", entities = " + members.size()
+                + ", clean flush = " + cleanFlushMs + "ms"
+                + ", flush with 10% dirty = " + dirtyFlushMs + "ms"
+                + ", commit = " + commitMs + "ms");
+    }
+}
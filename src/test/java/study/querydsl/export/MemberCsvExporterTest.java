@@ -0,0 +1,133 @@
+package study.querydsl.export;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberReadRepository;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(properties = {
+        "querydsl.export.partitions=3",
+        "querydsl.export.buffer-size=64"})
+class MemberCsvExporterTest {
+
+    @Autowired
+    MemberCsvExporter memberCsvExporter;
+
+    @Autowired
+    MemberReadRepository memberReadRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @Test
+    public void exportMatchesSearchInIdOrder() throws Exception {
+        // given
+        insertMembers(100);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+
+        // when
+        Path file = tempDir.resolve("members.csv");
+        MemberCsvExporter.ExportResult result = memberCsvExporter.export(condition, file, false);
+
+        // then
+        String expected = expectedCsv(condition);
+        Assertions.assertThat(result.rows()).isEqualTo(90);
+        Assertions.assertThat(result.partitions()).isEqualTo(3);
+        Assertions.assertThat(Files.readString(file)).isEqualTo(expected);
+    }
+
+    @Test
+    public void gzipExportIsSameCsv() throws Exception {
+        // given
+        insertMembers(100);
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // when
+        Path file = tempDir.resolve("members.csv.gz");
+        memberCsvExporter.export(condition, file, true);
+
+        // then
+        Assertions.assertThat(expectedCsv(condition)).contains("\"member,\"\"0\"\"\"").contains(",teamA\n");
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            Assertions.assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(expectedCsv(condition));
+        }
+    }
+
+    @Test
+    public void emptyResultWritesHeaderOnly() throws Exception {
+        // given
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUserName("nobody");
+
+        // when
+        Path file = tempDir.resolve("empty.csv");
+        MemberCsvExporter.ExportResult result = memberCsvExporter.export(condition, file, false);
+
+        // then
+        Assertions.assertThat(result.rows()).isEqualTo(0);
+        Assertions.assertThat(Files.readString(file)).isEqualTo("memberId,userName,age,teamId,teamName\n");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkExport() throws Exception {
+        insertMembers(500_000);
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        for (boolean gzip : new boolean[]{false, true}) {
+            MemberCsvExporter.ExportResult result =
+                    memberCsvExporter.export(condition, tempDir.resolve("bench.csv" + (gzip ? ".gz" : "")), gzip);
+            System.out.println("gzip = " + gzip + ", " + result);
+        }
+    }
+
+    private String expectedCsv(MemberSearchCondition condition) {
+        StringBuilder expected = new StringBuilder("memberId,userName,age,teamId,teamName\n");
+        memberReadRepository.streamSearch(condition, dto -> MemberCsvExporter.appendCsv(expected, dto));
+        return expected.toString();
+    }
+
+    /**
+     * 짝수 번째는 teamA, 홀수 번째는 팀 없음. 0 번째 이름에는 쉼표와 따옴표를 넣는다
+     */
+    private void insertMembers(int count) {
+        Long teamId = jdbcTemplate.queryForObject("select next value for team_seq", Long.class);
+        jdbcTemplate.update("insert into team (team_id, name) values (?, ?)", teamId, "teamA");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = i == 0 ? "member,\"0\"" : "member" + i;
+            rows.add(new Object[]{name, i % 100, i % 2 == 0 ? teamId : null});
+            if (rows.size() == 10_000 || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                        "insert into member (member_id, name, age, team_id) values (next value for member_seq, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package study.querydsl.importer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@SpringBootTest(properties = {
+        "querydsl.import.threads=3",
+        "querydsl.import.batch-size=7"})
+class MemberCsvImporterTest {
+
+    @Autowired
+    MemberCsvImporter memberCsvImporter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+        jdbcTemplate.update("delete from member_import_progress");
+    }
+
+    @Test
+    public void importCsvAcrossSplits() throws Exception {
+        // given
+        Path file = tempDir.resolve("members.csv");
+        writeMembers(file, 100, ',');
+
+        // when
+        MemberCsvImporter.ImportResult result = memberCsvImporter.importFile(file);
+
+        // then
+        Assertions.assertThat(result.rows()).isEqualTo(100);
+        Assertions.assertThat(result.skippedRows()).isEqualTo(1);
+        Assertions.assertThat(result.splits()).isEqualTo(3);
+        Assertions.assertThat(count("select count(*) from member")).isEqualTo(100);
+        Assertions.assertThat(count("select count(*) from team")).isEqualTo(3);
+        Assertions.assertThat(count("select count(*) from member where team_id is null")).isEqualTo(10);
+        Assertions.assertThat(count("select count(*) from member m join team t on t.team_id = m.team_id" +
+                " where m.name = 'member1' and m.age = 1 and t.name = 'team1'")).isEqualTo(1);
+
+        // 다시 넣으면 이미 끝난 구간은 건너뛴다
+        Assertions.assertThat(memberCsvImporter.importFile(file).rows()).isEqualTo(0);
+        Assertions.assertThat(count("select count(*) from member")).isEqualTo(100);
+    }
+
+    @Test
+    public void resumeFromCommittedPosition() throws Exception {
+        // given: 첫 번째 import 가 일부만 커밋된 것처럼 진행 위치를 되돌림
+        Path file = tempDir.resolve("members.tsv");
+        writeMembers(file, 30, '\t');
+        memberCsvImporter.importFile(file);
+
+        Long splitStart = jdbcTemplate.queryForObject(
+                "select start_position from member_import_progress where split_index = 2", Long.class);
+        List<String> namesInSplit = namesFrom(file, splitStart);
+        for (String name : namesInSplit) {
+            jdbcTemplate.update("delete from member where name = ?", name);
+        }
+        jdbcTemplate.update("update member_import_progress set position = start_position where split_index = 2");
+
+        // when
+        MemberCsvImporter.ImportResult result = memberCsvImporter.importFile(file);
+
+        // then
+        Assertions.assertThat(result.resumed()).isTrue();
+        Assertions.assertThat(result.rows()).isEqualTo(namesInSplit.size());
+        Assertions.assertThat(count("select count(*) from member")).isEqualTo(30);
+    }
+
+    @Test
+    public void firstLineIsHeaderOnlyWhenFirstFieldIsName() throws Exception {
+        // given
+        Path file = tempDir.resolve("no-header.csv");
+        Files.writeString(file, "Nameless,30,teamA\nmember1,10,teamA\n");
+
+        // when
+        MemberCsvImporter.ImportResult result = memberCsvImporter.importFile(file);
+
+        // then
+        Assertions.assertThat(result.rows()).isEqualTo(2);
+        Assertions.assertThat(count("select count(*) from member where name = 'Nameless'")).isEqualTo(1);
+    }
+
+    @Test
+    public void headerOnlyFileImportsNothing() throws Exception {
+        // given
+        Path file = tempDir.resolve("header-only.csv");
+        Files.writeString(file, "name,age,teamName\n");
+
+        // when
+        MemberCsvImporter.ImportResult result = memberCsvImporter.importFile(file);
+
+        // then
+        Assertions.assertThat(result.rows()).isZero();
+        Assertions.assertThat(result.splits()).isZero();
+        Assertions.assertThat(memberCsvImporter.importFile(Files.createFile(tempDir.resolve("empty.csv"))).rows())
+                .isZero();
+    }
+
+    @Test
+    public void memberIdsComeFromSequenceBlocks() throws Exception {
+        // given
+        Path file = tempDir.resolve("members.csv");
+        writeMembers(file, 100, ',');
+        long before = count("select next value for member_seq");
+
+        // when
+        memberCsvImporter.importFile(file);
+
+        // then: 3개 구간이 블록 하나(id 50개)씩이면 충분하므로 값이 행마다 늘지 않는다
+        Assertions.assertThat(count("select next value for member_seq") - before).isLessThan(20 * 50);
+        Assertions.assertThat(count("select count(distinct member_id) from member")).isEqualTo(100);
+    }
+
+    /**
+     * -Dbenchmark=true 로 실행. -Dimport.members 건의 CSV 를 넣는 속도 출력
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmark() throws Exception {
+        Path file = tempDir.resolve("benchmark.csv");
+        writeMembers(file, Integer.getInteger("import.members", 1_000_000), ',');
+
+        MemberCsvImporter.ImportResult result = memberCsvImporter.importFile(file);
+
+        System.out.println("rows = " + result.rows() + ", elapsed = " + result.elapsedMs() + "ms, rows/s = " +
+                result.rowsPerSecond());
+    }
+
+    /**
+     * 헤더 + count 명(10명 중 1명은 팀 없음) + 형식이 틀린 줄 1개
+     */
+    private void writeMembers(Path file, int count, char delimiter) throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("name" + delimiter + "age" + delimiter + "teamName\n");
+            for (int i = 0; i < count; i++) {
+                writer.write("member" + i + delimiter + (i % 60) + (i % 10 == 9 ? "" : delimiter + "team" + i % 3));
+                writer.write(i % 2 == 0 ? "\n" : "\r\n");
+                if (i == count / 2) {
+                    writer.write("broken" + delimiter + "age?\n");
+                }
+            }
+        }
+    }
+
+    private List<String> namesFrom(Path file, long position) throws Exception {
+        byte[] bytes = Files.readAllBytes(file);
+        String tail = new String(bytes, (int) position, bytes.length - (int) position, StandardCharsets.UTF_8);
+        return tail.lines()
+                .filter(line -> line.startsWith("member"))
+                .map(line -> line.split("[,\t]")[0])
+                .toList();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
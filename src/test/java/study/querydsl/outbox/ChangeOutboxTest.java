@@ -0,0 +1,161 @@
+package study.querydsl.outbox;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class ChangeOutboxTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    ChangeOutbox changeOutbox;
+
+    @Autowired
+    ChangeDispatcher changeDispatcher;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before() {
+        // 다른 테스트가 남긴 이벤트는 먼저 흘려보낸다
+        int dispatched;
+        do {
+            dispatched = changeDispatcher.dispatchOnce();
+        } while (dispatched > 0);
+    }
+
+    @Test
+    public void recordsJpaAndBulkChangesInOrder() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        memberJpaRepository.save(member1);
+        em.flush();
+
+        member1.changeTeam(teamB);
+        em.flush();
+        queryFactory
+                .update(member)
+                .set(member.age, member.age.add(1))
+                .where(member.id.eq(member1.getId()))
+                .execute();
+        queryFactory
+                .delete(member)
+                .where(member.id.eq(member1.getId()))
+                .execute();
+        em.clear();
+
+        List<ChangeEvent> received = new ArrayList<>();
+        ChangeListener listener = received::addAll;
+        changeDispatcher.register(listener);
+        long after = changeOutbox.lastPosition();
+
+        // when
+        int count;
+        try {
+            count = changeDispatcher.dispatchOnce();
+        } finally {
+            changeDispatcher.unregister(listener);
+        }
+
+        // then
+        Assertions.assertThat(count).isEqualTo(6);
+        Assertions.assertThat(received)
+                .extracting(event -> event.aggregateType() + " " + event.operation())
+                .containsExactly("TEAM INSERT", "TEAM INSERT", "MEMBER INSERT",
+                        "MEMBER UPDATE", "MEMBER UPDATE", "MEMBER DELETE");
+        Assertions.assertThat(received.subList(2, 6))
+                .extracting(ChangeEvent::aggregateId)
+                .containsOnly(member1.getId());
+        Assertions.assertThat(received)
+                .extracting(ChangeEvent::position)
+                .containsExactly(after + 1, after + 2, after + 3, after + 4, after + 5, after + 6);
+
+        // 전달이 끝난 이벤트는 poll API 로 같은 순서로 읽힌다
+        Assertions.assertThat(changeOutbox.findAfter(after, 100)).isEqualTo(received);
+        Assertions.assertThat(changeOutbox.pending().count()).isEqualTo(0);
+    }
+
+    @Test
+    public void positionsKeepGrowingAfterPurge() {
+        // given
+        em.persist(new Team("teamA"));
+        em.flush();
+        changeDispatcher.dispatchOnce();
+        long position = changeOutbox.lastPosition();
+
+        // when: 전달이 끝난 이벤트를 모두 지운 뒤 새 변경
+        changeOutbox.purgeDispatchedBefore(Instant.now().plusSeconds(60));
+        em.persist(new Team("teamB"));
+        em.flush();
+        changeDispatcher.dispatchOnce();
+
+        // then
+        Assertions.assertThat(changeOutbox.purgedPosition()).isEqualTo(position);
+        Assertions.assertThat(changeOutbox.findAfter(position, 100))
+                .extracting(ChangeEvent::position)
+                .containsExactly(position + 1);
+    }
+
+    @Test
+    public void failedListenerGetsSameEventsAgain() {
+        // given
+        em.persist(new Team("teamA"));
+        em.flush();
+
+        List<ChangeEvent> received = new ArrayList<>();
+        ChangeListener failing = events -> {
+            received.addAll(events);
+            throw new IllegalStateException("listener down");
+        };
+        changeDispatcher.register(failing);
+
+        // when
+        try {
+            Assertions.assertThatThrownBy(() -> changeDispatcher.dispatchOnce())
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            changeDispatcher.unregister(failing);
+        }
+
+        // then
+        Assertions.assertThat(received).hasSize(1);
+        Assertions.assertThat(changeOutbox.pending().count()).isEqualTo(1);
+
+        List<ChangeEvent> redelivered = new ArrayList<>();
+        ChangeListener listener = redelivered::addAll;
+        changeDispatcher.register(listener);
+        try {
+            Assertions.assertThat(changeDispatcher.dispatchOnce()).isEqualTo(1);
+        } finally {
+            changeDispatcher.unregister(listener);
+        }
+        Assertions.assertThat(redelivered).extracting(ChangeEvent::id).isEqualTo(List.of(received.get(0).id()));
+        Assertions.assertThat(changeDispatcher.metrics().failures()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,222 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberChangeDto;
+import study.querydsl.dto.MemberChangesDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.outbox.ChangeDispatcher;
+import study.querydsl.outbox.ChangeEvent;
+import study.querydsl.outbox.ChangeOutbox;
+
+import java.time.Instant;
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class MemberChangeRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    MemberChangeRepository memberChangeRepository;
+
+    @Autowired
+    ChangeDispatcher changeDispatcher;
+
+    @Autowired
+    ChangeOutbox changeOutbox;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    long start;
+
+    @BeforeEach
+    public void before() {
+        dispatchAll();
+        start = changeOutbox.lastPosition();
+    }
+
+    @Test
+    public void changesSinceVersion() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.flush();
+
+        // 전달되기 전에는 보이지 않는다
+        Assertions.assertThat(memberChangeRepository.findChangesSince(start, 100).getChanges()).isEmpty();
+        dispatchAll();
+        MemberChangesDto inserted = memberChangeRepository.findChangesSince(start, 100);
+
+        // Querydsl 벌크 수정과 삭제도 버전을 올린다
+        queryFactory
+                .update(member)
+                .set(member.age, member.age.add(1))
+                .where(member.id.eq(member1.getId()))
+                .execute();
+        queryFactory
+                .delete(member)
+                .where(member.id.eq(member2.getId()))
+                .execute();
+        em.clear();
+        dispatchAll();
+
+        // when
+        MemberChangesDto changed = memberChangeRepository.findChangesSince(inserted.getVersion(), 100);
+
+        // then
+        Assertions.assertThat(inserted.getChanges())
+                .extracting(MemberChangeDto::getUserName)
+                .containsExactly("member1", "member2", "member3");
+        Assertions.assertThat(inserted.isHasMore()).isFalse();
+
+        Assertions.assertThat(changed.getChanges())
+                .extracting(MemberChangeDto::getMemberId, MemberChangeDto::getAge, MemberChangeDto::isDeleted)
+                .containsExactly(
+                        Assertions.tuple(member1.getId(), 11, false),
+                        Assertions.tuple(member2.getId(), null, true));
+        Assertions.assertThat(changed.getVersion()).isEqualTo(changeOutbox.lastPosition());
+        Assertions.assertThat(em.find(Member.class, member1.getId()).getRowVersion())
+                .isEqualTo(changed.getChanges().get(0).getVersion());
+
+        Assertions.assertThat(memberChangeRepository.findChangesSince(changed.getVersion(), 100).getChanges()).isEmpty();
+    }
+
+    /**
+     * 팀 이름이 바뀌면 그 팀 회원들도 새 팀 이름으로 다시 내려간다
+     */
+    @Test
+    public void teamRenameChangesItsMembers() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(new Member("noTeam", 30));
+        em.flush();
+        dispatchAll();
+        long version = changeOutbox.lastPosition();
+
+        // when
+        queryFactory
+                .update(team)
+                .set(team.name, "teamB")
+                .where(team.id.eq(teamA.getId()))
+                .execute();
+        em.clear();
+        dispatchAll();
+
+        // then
+        MemberChangesDto changes = memberChangeRepository.findChangesSince(version, 100);
+        Assertions.assertThat(changes.getChanges())
+                .extracting(MemberChangeDto::getMemberId, MemberChangeDto::getTeamName)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(member1.getId(), "teamB"),
+                        Assertions.tuple(member2.getId(), "teamB"));
+        Assertions.assertThat(changes.getVersion()).isEqualTo(changeOutbox.lastPosition());
+    }
+
+    @Test
+    public void changesArePagedByVersion() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("member" + i, i));
+        }
+        em.flush();
+        dispatchAll();
+
+        // when
+        MemberChangesDto first = memberChangeRepository.findChangesSince(start, 3);
+        MemberChangesDto second = memberChangeRepository.findChangesSince(first.getVersion(), 3);
+
+        // then
+        Assertions.assertThat(first.isHasMore()).isTrue();
+        Assertions.assertThat(first.getChanges())
+                .extracting(MemberChangeDto::getUserName)
+                .containsExactly("member0", "member1", "member2");
+        Assertions.assertThat(second.isHasMore()).isFalse();
+        Assertions.assertThat(second.getChanges())
+                .extracting(MemberChangeDto::getUserName)
+                .containsExactly("member3", "member4");
+    }
+
+    @Test
+    public void deletingReusedIdDoesNotFail() {
+        // given: 이전 실행에서 같은 id 가 지워진 tombstone 이 남아 있는 경우
+        Member member1 = new Member("member1", 10);
+        em.persist(member1);
+        em.flush();
+        dispatchAll();
+        em.remove(member1);
+        em.flush();
+        dispatchAll();
+
+        jdbcTemplate.update("insert into member (member_id, name, age) values (?, 'member1', 10)", member1.getId());
+        changeOutbox.record("MEMBER", List.of(member1.getId()), ChangeEvent.Operation.INSERT);
+        dispatchAll();
+
+        // when
+        queryFactory
+                .delete(member)
+                .where(member.id.eq(member1.getId()))
+                .execute();
+        dispatchAll();
+
+        // then
+        MemberChangesDto changes = memberChangeRepository.findChangesSince(start, 100);
+        Assertions.assertThat(changes.getChanges())
+                .extracting(MemberChangeDto::getMemberId, MemberChangeDto::isDeleted)
+                .containsExactly(Assertions.tuple(member1.getId(), true));
+    }
+
+    @Test
+    public void oldVersionNeedsResyncAfterPurge() {
+        // given
+        em.persist(new Member("member1", 10));
+        em.flush();
+        dispatchAll();
+        long version = changeOutbox.lastPosition();
+        em.persist(new Member("member2", 20));
+        em.flush();
+        dispatchAll();
+
+        // when
+        changeOutbox.purgeDispatchedBefore(Instant.now().plusSeconds(60));
+
+        // then
+        Assertions.assertThat(memberChangeRepository.findChangesSince(version, 100).isResyncRequired()).isTrue();
+        Assertions.assertThat(memberChangeRepository.findChangesSince(0, 100).isResyncRequired()).isFalse();
+    }
+
+    private void dispatchAll() {
+        int dispatched;
+        do {
+            dispatched = changeDispatcher.dispatchOnce();
+        } while (dispatched > 0);
+    }
+}
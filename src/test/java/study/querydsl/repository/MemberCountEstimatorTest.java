@@ -0,0 +1,114 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.support.EstimatedPage;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+class MemberCountEstimatorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberCountEstimator countEstimator;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 300; i++) {
+            Team selectedTeam = i % 3 == 0 ? teamA : i % 3 == 1 ? teamB : null;
+            em.persist(new Member("member" + i, (i * 7) % 90, selectedTeam));
+        }
+        em.flush();
+        em.clear();
+        countEstimator.refresh();
+    }
+
+    /**
+     * 추정치와 정확한 count 의 차이는 보고된 오차 범위 이내여야 한다
+     */
+    @Test
+    public void estimateWithinErrorBound() {
+        List<MemberSearchCondition> conditions = List.of(
+                condition(null, null, null),
+                condition("teamA", null, null),
+                condition(null, 15, 47),
+                condition("teamB", 33, null),
+                condition(null, null, 5),
+                condition("teamA", 40, 49),
+                condition("none", null, null));
+
+        for (MemberSearchCondition condition : conditions) {
+            MemberCountEstimator.Estimate estimate = countEstimator.estimate(condition).orElseThrow();
+            long exact = memberRepository.search(condition).size();
+
+            Assertions.assertThat(Math.abs(estimate.total() - exact))
+                    .as("condition = %s", condition)
+                    .isLessThanOrEqualTo(estimate.error());
+        }
+    }
+
+    @Test
+    public void fullBucketsAreExact() {
+        MemberCountEstimator.Estimate estimate = countEstimator.estimate(condition("teamA", 20, 59)).orElseThrow();
+        long exact = memberRepository.search(condition("teamA", 20, 59)).size();
+
+        Assertions.assertThat(estimate.error()).isZero();
+        Assertions.assertThat(estimate.total()).isEqualTo(exact);
+    }
+
+    @Test
+    public void userNameFallsBackToExactCount() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUserName("member1");
+
+        Assertions.assertThat(countEstimator.estimate(condition)).isEmpty();
+
+        Page<MemberTeamDto> results = memberRepository.searchPageEstimated(condition, PageRequest.of(0, 10));
+        Assertions.assertThat(((EstimatedPage<MemberTeamDto>) results).isEstimated()).isFalse();
+        Assertions.assertThat(results.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    public void searchPageEstimated() {
+        MemberSearchCondition condition = condition(null, 15, 47);
+
+        Page<MemberTeamDto> results = memberRepository.searchPageEstimated(condition, PageRequest.of(1, 10));
+        EstimatedPage<MemberTeamDto> page = (EstimatedPage<MemberTeamDto>) results;
+        long exact = memberRepository.search(condition).size();
+
+        Assertions.assertThat(page.isEstimated()).isTrue();
+        Assertions.assertThat(page.getContent()).hasSize(10);
+        Assertions.assertThat(Math.abs(page.getTotalElements() - exact)).isLessThanOrEqualTo(page.getTotalError());
+    }
+
+    private MemberSearchCondition condition(String teamName, Integer ageGoe, Integer ageLoe) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        condition.setAgeGoe(ageGoe);
+        condition.setAgeLoe(ageLoe);
+        return condition;
+    }
+}
@@ -3,6 +3,7 @@ package study.querydsl.repository;
 import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
@@ -123,4 +124,75 @@ class MemberJpaRepositoryTest {
         Assertions.assertThat(results2).extracting("userName")
                 .containsExactly("member3", "member4");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void topByAgePerTeam() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+        em.persist(new Member("member4", 30, teamA));
+        em.persist(new Member("member5", 40, teamB));
+        em.persist(new Member("member6", 50, teamB));
+        em.persist(new Member("member7", 60));
+        em.flush();
+        em.clear();
+
+        // when
+        List<MemberTeamDto> oldest = memberJpaRepository.findTopByAgePerTeam(2, false);
+        List<MemberTeamDto> youngest = memberJpaRepository.findTopByAgePerTeam(1, true);
+
+        // then
+        Assertions.assertThat(oldest).extracting("userName")
+                .containsExactly("member3", "member4", "member6", "member5");
+        Assertions.assertThat(youngest).extracting("userName")
+                .containsExactly("member1", "member5");
+        Assertions.assertThat(memberJpaRepository.findTopByAgePerTeam_Subquery(2, false))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(oldest);
+        Assertions.assertThat(memberJpaRepository.findTopByAgePerTeam_Subquery(1, true))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(youngest);
+
+        // 아직 flush 하지 않은 회원도 보인다
+        em.persist(new Member("member8", 70, em.find(Team.class, teamB.getId())));
+        Assertions.assertThat(memberJpaRepository.findTopByAgePerTeam(1, false)).extracting("userName")
+                .containsExactly("member3", "member8");
+    }
+
+    /**
+     * -Dbenchmark=true 로 실행. 팀당 회원 수를 늘려 가며 윈도 함수와 상관 서브쿼리를 비교
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void topByAgePerTeamBenchmark() {
+        for (int membersPerTeam : new int[]{100, 1_000, 5_000}) {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            for (int teamIndex = 0; teamIndex < 10; teamIndex++) {
+                Team team = new Team("team" + teamIndex);
+                em.persist(team);
+                for (int i = 0; i < membersPerTeam; i++) {
+                    em.persist(new Member("member" + i, i % 80, team));
+                }
+            }
+            em.flush();
+            em.clear();
+
+            long start = System.nanoTime();
+            memberJpaRepository.findTopByAgePerTeam(3, false);
+            long window = (System.nanoTime() - start) / 1_000;
+
+            start = System.nanoTime();
+            memberJpaRepository.findTopByAgePerTeam_Subquery(3, false);
+            long subquery = (System.nanoTime() - start) / 1_000;
+
+            System.out.println("membersPerTeam = " + membersPerTeam +
+                    ", window = " + window + "us, subquery = " + subquery + "us");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.AgeBucketDto;
+import study.querydsl.dto.MemberField;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.NormalizedMembersDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@SpringBootTest
+@Transactional
+class MemberReadRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberReadRepository memberReadRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Test
+    public void readOnlyEntities() {
+        saveMembers(4);
+
+        List<Member> results = memberReadRepository.findAll();
+
+        Session session = em.unwrap(Session.class);
+        Assertions.assertThat(results).hasSize(4);
+        Assertions.assertThat(results).allMatch(session::isReadOnly);
+        Assertions.assertThat(memberReadRepository.findByName("member1")).hasSize(1);
+    }
+
+    @Test
+    public void streamWithStatelessSession() {
+        saveMembers(10);
+
+        long members = memberReadRepository.streamMembers(member ->
+                Assertions.assertThat(member.getTeam().getName()).startsWith("team"));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(4);
+        long teamA = memberReadRepository.streamSearch(condition, dto ->
+                Assertions.assertThat(dto.getTeamName()).isEqualTo("teamA"));
+
+        Assertions.assertThat(members).isEqualTo(10);
+        Assertions.assertThat(teamA).isEqualTo(memberReadRepository.search(condition).size());
+    }
+
+    @Test
+    public void ageHistogram() {
+        // given: 나이 0~9, 짝수는 teamA / 홀수는 teamB
+        saveMembers(10);
+
+        // when
+        List<AgeBucketDto> total = memberReadRepository.ageHistogram(new MemberSearchCondition(), new int[]{6, 3}, false);
+        List<AgeBucketDto> byTeam = memberReadRepository.ageHistogram(new MemberSearchCondition(), new int[]{3, 6}, true);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(3);
+        List<AgeBucketDto> filtered = memberReadRepository.ageHistogram(condition, new int[]{3, 6}, true);
+
+        // then
+        Assertions.assertThat(total).extracting("teamName", "ageFrom", "ageTo", "count")
+                .containsExactly(
+                        Assertions.tuple(null, null, 3, 3L),
+                        Assertions.tuple(null, 3, 6, 3L),
+                        Assertions.tuple(null, 6, null, 4L));
+        Assertions.assertThat(byTeam).extracting("teamName", "ageFrom", "count")
+                .containsExactly(
+                        Assertions.tuple("teamA", null, 2L),
+                        Assertions.tuple("teamA", 3, 1L),
+                        Assertions.tuple("teamA", 6, 2L),
+                        Assertions.tuple("teamB", null, 1L),
+                        Assertions.tuple("teamB", 3, 2L),
+                        Assertions.tuple("teamB", 6, 2L));
+        Assertions.assertThat(filtered).extracting("teamName", "ageFrom", "count")
+                .containsExactly(
+                        Assertions.tuple("teamB", 3, 2L),
+                        Assertions.tuple("teamB", 6, 2L));
+    }
+
+    /**
+     * 어떤 컬럼 조합을 골라도 전체 DTO 의 같은 프로퍼티와 값이 같다
+     */
+    @Test
+    public void searchFieldsConsistentWithDto() {
+        // given
+        saveMembers(10);
+        em.persist(new Member("noTeam", 5));
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(3);
+        List<MemberTeamDto> expected = memberReadRepository.search(condition);
+
+        for (int mask = 1; mask < 1 << MemberField.values().length; mask++) {
+            Set<MemberField> fields = EnumSet.noneOf(MemberField.class);
+            for (MemberField field : MemberField.values()) {
+                if ((mask & 1 << field.ordinal()) != 0) {
+                    fields.add(field);
+                }
+            }
+
+            // when
+            List<Map<String, Object>> results = memberReadRepository.searchFields(condition, fields);
+
+            // then
+            Assertions.assertThat(results).as("fields %s", fields)
+                    .containsExactlyInAnyOrderElementsOf(expected.stream().map(dto -> project(dto, fields)).toList());
+        }
+
+        condition.setTeamName("teamA");
+        Page<Map<String, Object>> page = memberReadRepository.searchPageFields(condition,
+                MemberField.parse(List.of("memberId", "userName")), PageRequest.of(0, 2));
+        Assertions.assertThat(page.getTotalElements()).isEqualTo(memberReadRepository.search(condition).size());
+        Assertions.assertThat(page.getContent()).allSatisfy(row ->
+                Assertions.assertThat(row).containsOnlyKeys("memberId", "userName"));
+        Assertions.assertThatThrownBy(() -> MemberField.parse(List.of("password")))
+                .isInstanceOf(MemberField.UnknownFieldException.class);
+
+        Slice<Map<String, Object>> slice = memberReadRepository.searchSliceFields(condition,
+                MemberField.parse(List.of("userName")), PageRequest.of(0, 2));
+        Assertions.assertThat(slice.getContent()).hasSize(2).allSatisfy(row ->
+                Assertions.assertThat(row).containsOnlyKeys("userName"));
+        Assertions.assertThat(slice.hasNext()).isEqualTo(page.getTotalElements() > 2);
+    }
+
+    @Test
+    public void searchNormalized() {
+        // given
+        saveMembers(10);
+        em.persist(new Member("noTeam", 5));
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(3);
+        List<MemberTeamDto> expected = memberReadRepository.search(condition);
+
+        // when
+        NormalizedMembersDto normalized = memberReadRepository.searchNormalized(condition);
+        condition.setTeamName("teamB");
+        NormalizedMembersDto page = memberReadRepository.searchPageNormalized(condition, PageRequest.of(0, 2));
+
+        // then: teams 로 다시 펼치면 전체 DTO 와 같다
+        Assertions.assertThat(normalized.getTeams().values()).containsExactlyInAnyOrder("teamA", "teamB");
+        Assertions.assertThat(normalized.getMembers())
+                .map(row -> new MemberTeamDto(row.getMemberId(), row.getUserName(), row.getAge(),
+                        row.getTeamId(), normalized.getTeams().get(row.getTeamId())))
+                .containsExactlyInAnyOrderElementsOf(expected);
+
+        Assertions.assertThat(page.getMembers()).hasSize(2);
+        Assertions.assertThat(page.getTeams().values()).containsExactly("teamB");
+        Assertions.assertThat(page.getTotalElements()).isEqualTo(memberReadRepository.search(condition).size());
+    }
+
+    private Map<String, Object> project(MemberTeamDto dto, Set<MemberField> fields) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (MemberField field : fields) {
+            result.put(field.getFieldName(), switch (field) {
+                case MEMBER_ID -> dto.getMemberId();
+                case USER_NAME -> dto.getUserName();
+                case AGE -> dto.getAge();
+                case TEAM_ID -> dto.getTeamId();
+                case TEAM_NAME -> dto.getTeamName();
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 100k 건 조회 시 관리 엔티티(스냅샷 + dirty checking) / read-only / StatelessSession 의 메모리, 시간 비교
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmark() {
+        saveMembers(100_000);
+
+        measure("managed", () -> {
+            List<Member> members = memberJpaRepository.findAll();
+            em.flush();
+            return members;
+        });
+        measure("read-only", () -> {
+            List<Member> members = memberReadRepository.findAll();
+            em.flush();
+            return members;
+        });
+        measure("stateless", () -> {
+            long[] ages = new long[1];
+            memberReadRepository.streamMembers(member -> ages[0] += member.getAge());
+            return ages;
+        });
+    }
+
+    private void measure(String name, Supplier<Object> load) {
+        em.clear();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+
+        Object retained = load.get();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.println(name + ": " + elapsedMs + "ms, retained heap = "
+                + (usedAfter - usedBefore) / 1024 + "KB (" + retained.getClass().getSimpleName() + ")");
+        em.clear();
+    }
+
+    private void saveMembers(int count) {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < count; i++) {
+            em.persist(new Member("member" + i, i % 100, i % 2 == 0 ? teamA : teamB));
+            if (i % 1_000 == 999) {
+                em.flush();
+                em.clear();
+                teamA = em.merge(teamA);
+                teamB = em.merge(teamB);
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+}
@@ -3,18 +3,23 @@ package study.querydsl.repository;
 import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @SpringBootTest
@@ -27,6 +32,12 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MemberRepositorySupport memberRepositorySupport;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     public void basicTest() {
         Member member = new Member("member1", 10);
@@ -133,4 +144,133 @@ class MemberRepositoryTest {
         Assertions.assertThat(results2.getContent()).extracting("userName")
                 .containsExactly("member4");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void searchSliceTest() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        // when
+        Slice<MemberTeamDto> results1 = memberRepository.searchSlice(condition, PageRequest.of(0, 1));
+        Slice<MemberTeamDto> results2 = memberRepository.searchSlice(condition, PageRequest.of(1, 1));
+
+        // then
+        Assertions.assertThat(results1.hasNext()).isTrue();
+        Assertions.assertThat(results1.getContent()).extracting("userName")
+                .containsExactly("member3");
+        Assertions.assertThat(results2.hasNext()).isFalse();
+        Assertions.assertThat(results2.getContent()).extracting("userName")
+                .containsExactly("member4");
+    }
+
+    @Test
+    public void findAllByIdsAndNames() {
+        Member member1 = new Member("member1", 10);
+        Member member2 = new Member("member2", 20);
+        Member member3 = new Member("member3", 30);
+        memberRepository.save(member1);
+        memberRepository.save(member2);
+        memberRepository.save(member3);
+
+        List<Member> results1 = memberRepository.findAllByIds(List.of(member1.getId(), member3.getId(), member1.getId()));
+        Assertions.assertThat(results1).containsExactlyInAnyOrder(member1, member3);
+
+        List<Member> results2 = memberRepository.findByNames(List.of("member2", "member3", "member9"));
+        Assertions.assertThat(results2).containsExactlyInAnyOrder(member2, member3);
+    }
+
+    @Test
+    public void searchPageDeferredTest() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 30; i++) {
+            em.persist(new Member("member" + i, i, i % 3 == 0 ? teamA : teamB));
+        }
+        em.persist(new Member("member30", 30));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(5);
+        List<MemberTeamDto> expected = memberRepository.search(condition).stream()
+                .sorted(Comparator.comparing(MemberTeamDto::getMemberId))
+                .toList();
+
+        // when
+        List<MemberTeamDto> deferred = new ArrayList<>();
+        Page<MemberTeamDto> page;
+        int pageNumber = 0;
+        do {
+            page = memberRepository.searchPageDeferred(condition, PageRequest.of(pageNumber++, 4));
+            deferred.addAll(page.getContent());
+        } while (page.hasNext());
+
+        MemberSearchCondition teamCondition = new MemberSearchCondition();
+        teamCondition.setTeamName("teamA");
+        Page<MemberTeamDto> teamPage = memberRepository.searchPageDeferred(teamCondition, PageRequest.of(1, 3));
+        Page<Member> supportPage = memberRepositorySupport.applyDeferredPagination(condition,
+                PageRequest.of(2, 4, Sort.by(Sort.Direction.DESC, "age")));
+
+        // then
+        Assertions.assertThat(deferred).containsExactlyElementsOf(expected);
+        Assertions.assertThat(page.getTotalElements()).isEqualTo(expected.size());
+        Assertions.assertThat(teamPage.getContent()).extracting("userName")
+                .containsExactly("member9", "member12", "member15");
+        Assertions.assertThat(supportPage.getContent()).extracting("age")
+                .containsExactly(22, 21, 20, 19);
+    }
+
+    /**
+     * -Dbenchmark=true 로 실행. offset 10k / 100k / 1M 에서 일반 offset 페이징과 deferred join 비교
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void searchPageDeferredBenchmark() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        em.flush();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000_100; i++) {
+            rows.add(new Object[]{"member" + i, i % 100, team.getId()});
+            if (rows.size() == 10_000) {
+                jdbcTemplate.batchUpdate(
+                        "insert into member (member_id, name, age, team_id) values (next value for member_seq, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into member (member_id, name, age, team_id) values (next value for member_seq, ?, ?, ?)", rows);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        for (int offset : new int[]{10_000, 100_000, 1_000_000}) {
+            Pageable pageable = PageRequest.of(offset / 20, 20);
+
+            long start = System.nanoTime();
+            memberRepository.searchPage(condition, pageable);
+            long plain = (System.nanoTime() - start) / 1_000;
+
+            start = System.nanoTime();
+            memberRepository.searchPageDeferred(condition, pageable);
+            long deferred = (System.nanoTime() - start) / 1_000;
+
+            System.out.println("offset = " + offset + ", offset paging = " + plain + "us, deferred join = " + deferred + "us");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.RelationalPath;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.sql.SMember;
+import study.querydsl.sql.STeam;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@SpringBootTest(properties = "querydsl.search.engine=sql")
+@Transactional
+class MemberSqlRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    /**
+     * 16가지 조건 조합 모두 JPA 구현과 같은 결과
+     */
+    @Test
+    public void equivalentToJpaRepository() {
+        saveMembers(40);
+
+        for (MemberSearchCondition condition : allConditions()) {
+            List<MemberTeamDto> expected = memberRepository.search(condition);
+
+            Assertions.assertThat(memberSqlRepository.search(condition))
+                    .as("search %s", condition)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+
+            List<MemberTeamDto> pagedContent = new ArrayList<>();
+            for (int page = 0; page * 7 < expected.size() || page == 0; page++) {
+                Page<MemberTeamDto> sqlPage = memberSqlRepository.searchPage(condition, PageRequest.of(page, 7));
+                Page<MemberTeamDto> jpaPage = memberRepository.searchPage(condition, PageRequest.of(page, 7));
+                Slice<MemberTeamDto> sqlSlice = memberSqlRepository.searchSlice(condition, PageRequest.of(page, 7));
+
+                Assertions.assertThat(sqlPage.getTotalElements()).isEqualTo(jpaPage.getTotalElements());
+                Assertions.assertThat(sqlPage.getNumberOfElements()).isEqualTo(jpaPage.getNumberOfElements());
+                Assertions.assertThat(sqlSlice.hasNext()).isEqualTo(sqlPage.hasNext());
+                Assertions.assertThat(memberSqlRepository.searchPageDeferred(condition, PageRequest.of(page, 7)).getContent())
+                        .as("searchPageDeferred %s", condition)
+                        .containsExactlyElementsOf(memberRepository.searchPageDeferred(condition, PageRequest.of(page, 7)).getContent());
+                pagedContent.addAll(sqlPage.getContent());
+            }
+            Assertions.assertThat(pagedContent)
+                    .as("searchPage %s", condition)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    /**
+     * 직접 관리하는 SMember / STeam 의 컬럼 이름, 타입, null 허용이 ddl-auto 로 만든 스키마와 같다
+     */
+    @Test
+    public void metadataMatchesSchema() throws SQLException {
+        assertMatchesSchema(SMember.member);
+        assertMatchesSchema(STeam.team);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmark() {
+        saveMembers(20_000);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+
+        long jpa = measure(() -> memberRepository.search(condition));
+        long sql = measure(() -> memberSqlRepository.search(condition));
+        long jpaPage = measure(() -> memberRepository.searchPage(condition, PageRequest.of(10, 100)));
+        long sqlPage = measure(() -> memberSqlRepository.searchPage(condition, PageRequest.of(10, 100)));
+
+        System.out.println("search     jpa = " + jpa + "us, sql = " + sql + "us");
+        System.out.println("searchPage jpa = " + jpaPage + "us, sql = " + sqlPage + "us");
+    }
+
+    private void assertMatchesSchema(RelationalPath<?> table) throws SQLException {
+        Map<String, ColumnMetadata> columns = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.getMetaData()
+                     .getColumns(null, table.getSchemaName(), table.getTableName(), null)) {
+            while (resultSet.next()) {
+                ColumnMetadata column = ColumnMetadata.named(resultSet.getString("COLUMN_NAME"))
+                        .ofType(resultSet.getInt("DATA_TYPE"));
+                columns.put(column.getName(), resultSet.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls
+                        ? column.notNull() : column);
+            }
+        }
+
+        for (Path<?> path : table.getColumns()) {
+            ColumnMetadata expected = table.getMetadata(path);
+            ColumnMetadata actual = columns.get(expected.getName());
+            Assertions.assertThat(actual).as("%s.%s", table.getTableName(), expected.getName()).isNotNull();
+            Assertions.assertThat(actual.getJdbcType()).as("%s.%s type", table.getTableName(), expected.getName())
+                    .isEqualTo(expected.getJdbcType());
+            Assertions.assertThat(actual.isNullable()).as("%s.%s nullable", table.getTableName(), expected.getName())
+                    .isEqualTo(expected.isNullable());
+        }
+    }
+
+    private long measure(Supplier<?> query) {
+        for (int i = 0; i < 5; i++) {
+            query.get();
+            em.clear();
+        }
+        int iterations = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            query.get();
+            em.clear();
+        }
+        return (System.nanoTime() - start) / iterations / 1_000;
+    }
+
+    private void saveMembers(int count) {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < count; i++) {
+            Team selectedTeam = i % 3 == 0 ? teamA : i % 3 == 1 ? teamB : null;
+            em.persist(new Member("member" + (i % 10), i % 50, selectedTeam));
+            if (i % 1_000 == 0) {
+                em.flush();
+                em.clear();
+                teamA = em.merge(teamA);
+                teamB = em.merge(teamB);
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private List<MemberSearchCondition> allConditions() {
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        for (int shape = 0; shape < 16; shape++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setUserName((shape & 1) != 0 ? "member3" : null);
+            condition.setTeamName((shape & 2) != 0 ? "teamB" : null);
+            condition.setAgeGoe((shape & 4) != 0 ? 13 : null);
+            condition.setAgeLoe((shape & 8) != 0 ? 38 : null);
+            conditions.add(condition);
+        }
+        return conditions;
+    }
+}
@@ -0,0 +1,106 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.diagnostics.SlowQueryRecorder;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest(properties = "querydsl.slow-query.threshold-ms=0")
+@Transactional
+class TeamQueryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamQueryRepository teamQueryRepository;
+
+    @Autowired
+    SlowQueryRecorder slowQueryRecorder;
+
+    @Test
+    public void pageTeamsWithLimitedMembers() {
+        // given: team0 회원 0명, team1 1명, team2 2명, ...
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            for (int j = 0; j < i; j++) {
+                em.persist(new Member("member" + i + "_" + j, j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        Page<TeamMembersDto> page0 = teamQueryRepository.findTeamsWithMembers(PageRequest.of(0, 3), 2);
+        Page<TeamMembersDto> page1 = teamQueryRepository.findTeamsWithMembers(PageRequest.of(1, 3), 2);
+
+        // then
+        Assertions.assertThat(page0.getTotalElements()).isEqualTo(5);
+        Assertions.assertThat(page0.getContent()).extracting("teamName")
+                .containsExactly("team0", "team1", "team2");
+        Assertions.assertThat(page0.getContent().get(0).getMembers()).isEmpty();
+        Assertions.assertThat(page0.getContent().get(2).getMembers()).extracting("userName")
+                .containsExactly("member2_0", "member2_1");
+        Assertions.assertThat(page0.getContent().get(2).isHasMoreMembers()).isFalse();
+
+        Assertions.assertThat(page1.getContent()).extracting("teamName")
+                .containsExactly("team3", "team4");
+        Assertions.assertThat(page1.getContent().get(1).getMembers()).extracting("userName")
+                .containsExactly("member4_0", "member4_1");
+        Assertions.assertThat(page1.getContent().get(1).isHasMoreMembers()).isTrue();
+    }
+
+    /**
+     * 페이지에 팀이 몇 개든 팀 / 회원 / count 쿼리 3개
+     */
+    @Test
+    public void statementCountDoesNotDependOnPageSize() {
+        // given
+        for (int i = 0; i < 20; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+
+        // when / then
+        Assertions.assertThat(statements(() -> teamQueryRepository.findTeamsWithMembers(PageRequest.of(0, 2), 2)))
+                .isEqualTo(3);
+        Assertions.assertThat(statements(() -> teamQueryRepository.findTeamsWithMembers(PageRequest.of(0, 10), 2)))
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void seesUnflushedMembers() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        em.flush();
+        em.persist(new Member("member1", 10, team));
+
+        Page<TeamMembersDto> page = teamQueryRepository.findTeamsWithMembers(PageRequest.of(0, 10), 2);
+
+        Assertions.assertThat(page.getContent().get(0).getMembers()).extracting("userName")
+                .containsExactly("member1");
+    }
+
+    /**
+     * threshold 0 이면 모든 statement 가 기록되므로 TeamQueryRepository 에서 나간 것만 센다
+     */
+    private long statements(Runnable query) {
+        slowQueryRecorder.clear();
+        query.run();
+        return slowQueryRecorder.recent().stream()
+                .filter(slowQuery -> slowQuery.origin().startsWith("TeamQueryRepository."))
+                .count();
+    }
+}
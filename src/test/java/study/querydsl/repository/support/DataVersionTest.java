@@ -0,0 +1,36 @@
+package study.querydsl.repository.support;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DataVersionTest {
+
+    @Test
+    public void etagChangesWithVersion() {
+        DataVersion dataVersion = new DataVersion();
+        String before = dataVersion.etag();
+
+        dataVersion.markChanged();
+
+        Assertions.assertThat(dataVersion.etag()).isNotEqualTo(before);
+        Assertions.assertThat(dataVersion.current()).isEqualTo(1);
+    }
+
+    /**
+     * 재기동 / 다른 인스턴스처럼 카운터가 같아도 이전 DataVersion 의 ETag 와 겹치지 않는다
+     */
+    @Test
+    public void newInstanceNeverMatchesEarlierEtag() {
+        DataVersion earlier = new DataVersion();
+        earlier.markChanged();
+        String earlierEtag = earlier.etag();
+
+        for (int i = 0; i < 100; i++) {
+            DataVersion restarted = new DataVersion();
+            restarted.markChanged();
+
+            Assertions.assertThat(restarted.current()).isEqualTo(earlier.current());
+            Assertions.assertThat(restarted.etag()).isNotEqualTo(earlierEtag);
+        }
+    }
+}
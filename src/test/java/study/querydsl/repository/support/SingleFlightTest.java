@@ -0,0 +1,75 @@
+package study.querydsl.repository.support;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightTest {
+
+    @Test
+    public void concurrentCallersShareOneExecution() throws Exception {
+        // given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(100);
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+
+        // when
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("teamA", () -> {
+            queries.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "result";
+        })));
+        started.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 9; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("teamA", () -> {
+                queries.incrementAndGet();
+                return "other";
+            })));
+        }
+        while (singleFlight.shared() < 9) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            Assertions.assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        Assertions.assertThat(queries.get()).isEqualTo(1);
+        Assertions.assertThat(singleFlight.executions()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    public void failureIsSharedAndNotRemembered() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(100);
+
+        Assertions.assertThatThrownBy(() -> singleFlight.execute("teamA", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // 끝난 실행은 남지 않으므로 다음 호출은 새로 실행
+        Assertions.assertThat(singleFlight.execute("teamA", () -> "result")).isEqualTo("result");
+        Assertions.assertThat(singleFlight.executions()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package study.querydsl.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 트랜잭션 밖에서 호출하면 chunk 를 executor 에서 병렬로 조회한다.
+ * 테스트 트랜잭션이 있으면 chunk 를 순서대로 실행하므로 트랜잭션 없이 jdbc 로 넣고 직접 지운다.
+ */
+@SpringBootTest(properties = {
+        "querydsl.batch-lookup.chunk-size=4",
+        "querydsl.batch-lookup.join-threshold=100"})
+class MemberBatchLookupServiceParallelTest {
+
+    @Autowired
+    MemberBatchLookupService memberBatchLookupService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        Long teamId = jdbcTemplate.queryForObject("select next value for team_seq", Long.class);
+        jdbcTemplate.update("insert into team (team_id, name) values (?, ?)", teamId, "teamA");
+
+        for (int i = 0; i < 20; i++) {
+            Long memberId = jdbcTemplate.queryForObject("select next value for member_seq", Long.class);
+            jdbcTemplate.update("insert into member (member_id, name, age, team_id) values (?, ?, ?, ?)",
+                    memberId, "member" + (i % 15), i, i % 2 == 0 ? teamId : null);
+            ids.add(memberId);
+        }
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @Test
+    public void findByIdsInParallelChunks() {
+        // given: 21 개 키 -> chunk 6 개
+        List<Long> keys = new ArrayList<>(ids);
+        keys.add(-1L);
+
+        // when
+        Map<Long, MemberTeamDto> results = memberBatchLookupService.findByIds(keys);
+
+        // then
+        Assertions.assertThat(results.keySet()).containsExactlyElementsOf(ids);
+        Assertions.assertThat(results.get(ids.get(0)).getTeamName()).isEqualTo("teamA");
+        Assertions.assertThat(results.get(ids.get(1)).getTeamName()).isNull();
+        Assertions.assertThat(results.get(ids.get(19)).getAge()).isEqualTo(19);
+    }
+
+    @Test
+    public void findByNamesInParallelChunks() {
+        // given
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            names.add("member" + i);
+        }
+
+        // when
+        Map<String, List<MemberTeamDto>> results = memberBatchLookupService.findByNames(names);
+
+        // then
+        Assertions.assertThat(results.keySet()).containsExactlyElementsOf(names);
+        Assertions.assertThat(results.get("member1")).extracting("age").containsExactlyInAnyOrder(1, 16);
+        Assertions.assertThat(results.values().stream().mapToInt(List::size).sum()).isEqualTo(20);
+    }
+}
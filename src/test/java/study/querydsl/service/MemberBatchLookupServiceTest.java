@@ -0,0 +1,110 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest(properties = {
+        "querydsl.batch-lookup.chunk-size=4",
+        "querydsl.batch-lookup.join-threshold=10"})
+@Transactional
+class MemberBatchLookupServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBatchLookupService memberBatchLookupService;
+
+    List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 20; i++) {
+            Member member = new Member("member" + (i % 15), i, i % 2 == 0 ? teamA : teamB);
+            em.persist(member);
+            ids.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * chunk-size(4) 로 나눈 IN 절 조회, 요청 순서대로 키별 결과를 돌려준다
+     */
+    @Test
+    public void findByIdsInChunks() {
+        List<Long> keys = new ArrayList<>(ids.subList(0, 9));
+        keys.add(-1L);
+        keys.add(ids.get(0));
+
+        Map<Long, MemberTeamDto> results = memberBatchLookupService.findByIds(keys);
+
+        Assertions.assertThat(results.keySet()).containsExactlyElementsOf(ids.subList(0, 9));
+        Assertions.assertThat(results.get(ids.get(1)).getTeamName()).isEqualTo("teamB");
+    }
+
+    /**
+     * join-threshold(10) 를 넘으면 unnest join 으로 한 번에 조회
+     */
+    @Test
+    public void findByIdsWithKeyJoin() {
+        Map<Long, MemberTeamDto> results = memberBatchLookupService.findByIds(ids);
+
+        Assertions.assertThat(results.keySet()).containsExactlyElementsOf(ids);
+        Assertions.assertThat(results.get(ids.get(3)).getAge()).isEqualTo(3);
+    }
+
+    /**
+     * unnest join 도 아직 flush 하지 않은 변경을 본다
+     */
+    @Test
+    public void keyJoinSeesUnflushedChanges() {
+        Member member = new Member("unflushed", 99);
+        em.persist(member);
+        List<Long> keys = new ArrayList<>(ids);
+        keys.add(member.getId());
+
+        Map<Long, MemberTeamDto> results = memberBatchLookupService.findByIds(keys);
+
+        Assertions.assertThat(results.get(member.getId()).getAge()).isEqualTo(99);
+    }
+
+    @Test
+    public void findByNames() {
+        Map<String, List<MemberTeamDto>> results = memberBatchLookupService.findByNames(
+                List.of("member1", "member16", "member2"));
+
+        Assertions.assertThat(results.keySet()).containsExactly("member1", "member2");
+        Assertions.assertThat(results.get("member1")).extracting("age").containsExactlyInAnyOrder(1, 16);
+    }
+
+    @Test
+    public void findByNamesWithKeyJoin() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            names.add("member" + i);
+        }
+
+        Map<String, List<MemberTeamDto>> results = memberBatchLookupService.findByNames(names);
+
+        Assertions.assertThat(results.keySet()).containsExactlyElementsOf(names);
+        Assertions.assertThat(results.values().stream().mapToInt(List::size).sum()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,125 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberIngestRequest;
+import study.querydsl.dto.MemberIngestResult;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = "querydsl.ingest.chunk-size=3")
+@Transactional
+class MemberIngestServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void ingestInChunksAndResolveTeams() {
+        // given: teamA 는 이미 있음
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        List<MemberIngestRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            rows.add(new MemberIngestRequest("member" + i, i, i % 2 == 0 ? "teamA" : "teamB"));
+        }
+        rows.add(new MemberIngestRequest("noTeam", 30, null));
+
+        // when
+        MemberIngestResult result = memberIngestService.ingest(rows);
+
+        // then
+        Assertions.assertThat(result.getRows()).isEqualTo(8);
+        Assertions.assertThat(result.getBatches()).isEqualTo(3);
+
+        List<Team> teams = em.createQuery("select t from Team t order by t.id", Team.class).getResultList();
+        Assertions.assertThat(teams).extracting("name").containsExactly("teamA", "teamB");
+
+        List<Member> members = em.createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                .getResultList();
+        Assertions.assertThat(members).hasSize(8);
+        Assertions.assertThat(members.get(0).getTeam().getId()).isEqualTo(teamA.getId());
+        Assertions.assertThat(members.get(1).getTeam().getName()).isEqualTo("teamB");
+        Assertions.assertThat(members.get(7).getTeam()).isNull();
+    }
+
+    @Test
+    public void ingestNdjson() throws Exception {
+        String ndjson = """
+                {"userName":"member1","age":10,"teamName":"teamA"}
+                {"userName":"member2","age":20,"teamName":"teamA"}
+                {"userName":"member3","age":30}
+                """;
+
+        MemberIngestResult result = memberIngestService.ingestNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertThat(result.getRows()).isEqualTo(3);
+        Assertions.assertThat(em.createQuery("select count(m) from Member m where m.team.name = 'teamA'", Long.class)
+                .getSingleResult()).isEqualTo(2);
+    }
+
+    @Test
+    public void failureReportsCommittedRows() {
+        String ndjson = """
+                {"userName":"member1","age":10}
+                {"userName":"member2","age":20}
+                {"userName":"member3","age":30}
+                {"userName":"member4","age":40}
+                {"userName":
+                """;
+
+        Assertions.assertThatThrownBy(() -> memberIngestService.ingestNdjson(
+                        new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(MemberIngestService.IngestFailedException.class)
+                .extracting("committedRows").isEqualTo(3L);
+        Assertions.assertThat(em.createQuery("select count(m) from Member m", Long.class).getSingleResult())
+                .isEqualTo(3);
+    }
+
+    /**
+     * -Dbenchmark=true 로 실행. 지속 입력 속도(rows/sec)와 chunk p99 지연 출력
+     * <p>
+     * 테스트 트랜잭션에 합류하면 chunk 마다 커밋하지 않으므로 트랜잭션 없이 실행하고 직접 지운다.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void benchmark() {
+        List<MemberIngestRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            rows.add(new MemberIngestRequest("member" + i, i % 100, "team" + i % 10));
+        }
+
+        MemberIngestResult result;
+        try {
+            result = memberIngestService.ingest(rows);
+        } finally {
+            jdbcTemplate.update("delete from member");
+            jdbcTemplate.update("delete from team");
+            jdbcTemplate.update("delete from change_outbox");
+        }
+
+        System.out.println("rows = " + result.getRows() + ", rows/sec = " + result.getRowsPerSecond() +
+                ", p99 batch = " + result.getP99BatchMs() + "ms, max batch = " + result.getMaxBatchMs() + "ms");
+    }
+}
@@ -0,0 +1,85 @@
+package study.querydsl.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.support.DataVersion;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+class MemberPagePrefetcherTest {
+
+    DataVersion dataVersion = new DataVersion();
+    MemberPagePrefetcher prefetcher = new MemberPagePrefetcher(dataVersion, true, 10, 10_000, 1);
+    Queue<Integer> loadedPages = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    public void after() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    public void prefetchNextPageOnSequentialAccess() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        // when
+        Page<MemberTeamDto> page0 = fetch("client1", condition, PageRequest.of(0, 10));
+        Page<MemberTeamDto> page1 = fetch("client1", condition, PageRequest.of(1, 10));
+        Page<MemberTeamDto> page2 = fetch("client1", condition, PageRequest.of(2, 10));
+
+        // then: page 2 는 page 1 응답 후 미리 읽어 둔 것
+        Assertions.assertThat(page2.getContent().get(0).getMemberId()).isEqualTo(20L);
+        Assertions.assertThat(prefetcher.metrics().hits()).isEqualTo(1);
+        Assertions.assertThat(prefetcher.metrics().misses()).isEqualTo(2);
+        Assertions.assertThat(loadedPages).startsWith(0, 1, 2);
+        Assertions.assertThat(page0.getNumber()).isEqualTo(0);
+        Assertions.assertThat(page1.getNumber()).isEqualTo(1);
+    }
+
+    @Test
+    public void discardPrefetchedPageAfterMemberWrite() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        fetch("client1", condition, PageRequest.of(0, 10));
+        fetch("client1", condition, PageRequest.of(1, 10));
+
+        // when: 미리 읽은 뒤 데이터가 바뀜
+        dataVersion.markChanged();
+        fetch("client1", condition, PageRequest.of(2, 10));
+
+        // then
+        Assertions.assertThat(prefetcher.metrics().hits()).isEqualTo(0);
+        Assertions.assertThat(prefetcher.metrics().wasted()).isEqualTo(1);
+    }
+
+    @Test
+    public void noPrefetchWithoutClientOrForRandomAccess() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        fetch(null, condition, PageRequest.of(0, 10));
+        fetch(null, condition, PageRequest.of(1, 10));
+        fetch("client1", condition, PageRequest.of(5, 10));
+        fetch("client1", condition, PageRequest.of(2, 10));
+
+        Assertions.assertThat(prefetcher.metrics().prefetches()).isEqualTo(0);
+        Assertions.assertThat(loadedPages).containsExactly(0, 1, 5, 2);
+    }
+
+    private Page<MemberTeamDto> fetch(String clientId, MemberSearchCondition condition, Pageable pageable) {
+        return prefetcher.fetch(clientId, "page", condition, pageable, (c, p) -> {
+            loadedPages.add(p.getPageNumber());
+            long firstId = p.getOffset();
+            List<MemberTeamDto> content = List.of(new MemberTeamDto(firstId, "member" + firstId, 10, 1L, "teamA"));
+            return new PageImpl<>(content, p, 100);
+        });
+    }
+}
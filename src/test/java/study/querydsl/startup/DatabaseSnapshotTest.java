@@ -0,0 +1,112 @@
+package study.querydsl.startup;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * restore() 가 DROP ALL OBJECTS 를 하므로 스프링 테스트 컨텍스트가 공유하는 DB 가 아니라 테스트마다 따로 만든 메모리 DB 에서 돌린다.
+ */
+class DatabaseSnapshotTest {
+
+    JdbcTemplate jdbcTemplate;
+    DatabaseSnapshot databaseSnapshot;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void before() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:snapshot-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        databaseSnapshot = new DatabaseSnapshot(jdbcTemplate, "");
+
+        jdbcTemplate.execute("create sequence team_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create sequence member_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create table team (team_id bigint not null primary key, name varchar(255))");
+        jdbcTemplate.execute("create table member (member_id bigint not null primary key, name varchar(255)," +
+                " age integer not null, team_id bigint references team (team_id))");
+        jdbcTemplate.execute("create index idx_member_name on member (name)");
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void exportAndRestore() {
+        insertMembers(100);
+        Path snapshot = tempDir.resolve("querydsl.sql.gz");
+
+        databaseSnapshot.export(snapshot);
+        jdbcTemplate.update("delete from member");
+
+        Assertions.assertThat(databaseSnapshot.restore(snapshot)).isTrue();
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from member", Long.class)).isEqualTo(100);
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes where index_name = 'IDX_MEMBER_NAME'", Long.class))
+                .isPositive();
+    }
+
+    @Test
+    public void rejectCorruptedSnapshot() throws Exception {
+        insertMembers(10);
+        Path snapshot = tempDir.resolve("querydsl.sql.gz");
+        databaseSnapshot.export(snapshot);
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(snapshot, bytes);
+
+        Assertions.assertThat(databaseSnapshot.restore(snapshot)).isFalse();
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from member", Long.class)).isEqualTo(10);
+    }
+
+    /**
+     * -Dbenchmark=true -Dsnapshot.members=10000000 처럼 건수를 지정해 복원 시간을 측정
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmark() {
+        int count = Integer.getInteger("snapshot.members", 1_000_000);
+        insertMembers(count);
+        Path snapshot = tempDir.resolve("benchmark.sql.gz");
+
+        long start = System.nanoTime();
+        databaseSnapshot.export(snapshot);
+        long exportMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        databaseSnapshot.restore(snapshot);
+        long restoreMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("members = " + count + ", export = " + exportMs + "ms, restore = " + restoreMs + "ms");
+    }
+
+    private void insertMembers(int count) {
+        Long teamId = jdbcTemplate.queryForObject("select next value for team_seq", Long.class);
+        jdbcTemplate.update("insert into team (team_id, name) values (?, ?)", teamId, "teamA");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"member" + i, i % 100, teamId});
+            if (rows.size() == 10_000 || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                        "insert into member (member_id, name, age, team_id) values (next value for member_seq, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package study.querydsl.web;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "querydsl.concurrency-limit.endpoints[/v1/members/top-per-team].initial=3",
+        "querydsl.concurrency-limit.endpoints[/v1/members/top-per-team].max=5"})
+@AutoConfigureMockMvc
+class ConcurrencyLimitTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Test
+    public void rejectWhenLimitIsFull() throws Exception {
+        // given
+        AdaptiveConcurrencyLimit limit = concurrencyLimitInterceptor.limitFor("GET /v2/members/slice");
+        int holding = 0;
+        while (limit.tryAcquire()) {
+            holding++;
+        }
+
+        try {
+            // when / then
+            mockMvc.perform(get("/v2/members/slice"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+            // 다른 엔드포인트는 영향 없음
+            mockMvc.perform(get("/v2/members"))
+                    .andExpect(status().isOk());
+        } finally {
+            for (int i = 0; i < holding; i++) {
+                limit.release(0, false);
+            }
+        }
+
+        mockMvc.perform(get("/v2/members/slice"))
+                .andExpect(status().isOk());
+        Assertions.assertThat(concurrencyLimitInterceptor.snapshots().get("GET /v2/members/slice").rejected())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void endpointOverride() {
+        Assertions.assertThat(concurrencyLimitInterceptor.limitFor("GET /v1/members/top-per-team").snapshot().limit())
+                .isEqualTo(3);
+        Assertions.assertThat(concurrencyLimitInterceptor.limitFor("GET /v1/members").snapshot().limit())
+                .isEqualTo(20);
+    }
+
+    @Test
+    public void additiveIncreaseMultiplicativeDecrease() {
+        // given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, 100, 0.5);
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+        long slow = TimeUnit.MILLISECONDS.toNanos(200);
+
+        // when: 한도만큼 채운 상태에서 빠르게 끝나면 늘어난다
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 10; i++) {
+                limit.tryAcquire();
+            }
+            for (int i = 0; i < 10; i++) {
+                limit.release(fast, false);
+            }
+        }
+
+        // then
+        Assertions.assertThat(limit.snapshot().limit()).isGreaterThan(10);
+
+        // when: 느린 응답은 곱해서 줄이되, latency 목표(100ms) 안에 몰린 느린 응답은 한 번만 반영한다
+        long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+        }
+        for (int i = 0; i < 5; i++) {
+            limit.release(now + TimeUnit.MILLISECONDS.toNanos(i), slow, false);
+        }
+
+        // then
+        Assertions.assertThat(limit.snapshot().limit()).isBetween(5, 6);
+        Assertions.assertThat(limit.snapshot().limitDrops()).isEqualTo(1);
+
+        // when: 다음 구간의 느린 응답
+        limit.tryAcquire();
+        limit.release(now + TimeUnit.MILLISECONDS.toNanos(150), slow, false);
+
+        // then
+        Assertions.assertThat(limit.snapshot().limit()).isLessThanOrEqualTo(3);
+        Assertions.assertThat(limit.snapshot().limitDrops()).isEqualTo(2);
+    }
+}